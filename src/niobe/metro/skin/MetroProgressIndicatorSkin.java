@@ -16,18 +16,24 @@ package niobe.metro.skin;
 import com.sun.javafx.css.converters.BooleanConverter;
 import com.sun.javafx.css.converters.PaintConverter;
 import com.sun.javafx.css.converters.SizeConverter;
+import com.sun.javafx.css.converters.StringConverter;
 import com.sun.javafx.scene.control.skin.ProgressIndicatorSkin;
+import com.sun.javafx.tk.TKPulseListener;
+import com.sun.javafx.tk.Toolkit;
 import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
-import javafx.animation.Timeline;
+import javafx.animation.Interpolator;
+import javafx.animation.PauseTransition;
+import javafx.animation.Transition;
+import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ObservableDoubleValue;
 import javafx.css.CssMetaData;
 import javafx.css.Styleable;
 import javafx.css.StyleableBooleanProperty;
@@ -35,20 +41,39 @@ import javafx.css.StyleableDoubleProperty;
 import javafx.css.StyleableIntegerProperty;
 import javafx.css.StyleableObjectProperty;
 import javafx.css.StyleableProperty;
+import javafx.css.StyleableStringProperty;
+import javafx.geometry.Bounds;
 import javafx.geometry.NodeOrientation;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.SkinBase;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.SVGPath;
+import javafx.scene.shape.Shape;
+import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import javafx.stage.Screen;
+import javafx.stage.Window;
 import javafx.util.Duration;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Indetermine skin for ProgressIndicator control, inspired by Windows 8's
@@ -84,6 +109,41 @@ import java.util.List;
  * 	-fx-progress-color: BLACK;
  * </i>
  * </pre>
+ * Without spinning, the segments stand evenly around the ring and pulse in a
+ * wave of opacity, which is much cheaper than spinning. It can be disabled
+ * for static segments:
+ * <pre>
+ * <i>
+ * 	-fx-pulse-enabled: false;
+ * </i>
+ * </pre>
+ * If the average pulse time, the animation of the spinners and the scene
+ * pulse, exceeds a budget in milliseconds, a spinning indicator doubles the
+ * angle per step, halves the segments and reduces its framerate step by step
+ * until the budget is met. The pulse mode is not governed. As the pulse time
+ * is the one of the whole scene, the governor is disabled by default (0). The
+ * default budget can be taken from the <i>niobe.metro.pulseBudget</i> system
+ * property:
+ * <pre>
+ * <i>
+ * 	-fx-indeterminate-pulse-budget: 10.0;
+ * </i>
+ * </pre>
+ * The segment shape is a SVG path, parsed once and shared by the segments of
+ * all indicators:
+ * <pre>
+ * <i>
+ * 	-fx-indeterminate-segment-shape: "M3.01 37.25 a3.5,3.5 0 1,1 0,1 Z";
+ * </i>
+ * </pre>
+ * Tasks flipping between indeterminate and determinate within a short time can
+ * be debounced by a delay in milliseconds. A state which keeps flipping is
+ * shown at the latest after four delays:
+ * <pre>
+ * <i>
+ * 	-fx-indeterminate-switch-delay: 150.0;
+ * </i>
+ * </pre>
  */
 public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		// BehaviorSkinBase<ProgressIndicator,
@@ -91,20 +151,78 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 {
 	private ProgressIndicator control;
 
-	private class MetroIndetermineSpinner extends Region
+	/**
+	 * Single daemon thread which computes the timing tables of all spinners.
+	 * The table holds all angles, opacities and times of the animation, the FX
+	 * thread only swaps it in and samples it, it creates no key frames.
+	 */
+	private static final ExecutorService TIMING_EXECUTOR = Executors
+			.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "MetroProgressIndicator-Timing");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	// rebuild counters of all skins, read by diagnostic tools
+	private static final AtomicLong SEGMENT_REBUILDS  = new AtomicLong();
+	private static final AtomicLong TIMELINE_REBUILDS = new AtomicLong();
+
+	/**
+	 * Immutable table of the angles, opacities and key frame times of one spin.
+	 * All segments share the same steps and are only shifted by
+	 * <i>nextSegmentTime</i>, so it only depends on plain values and can be
+	 * computed off the FX thread.<br>
+	 * Tables are always computed: 37 steps of 20 degrees take about 0.3 ms on
+	 * a cold JVM, less than loading precomputed steps from a resource or a
+	 * class of constants would.
+	 */
+	private static final class TimingTable
 	{
-		private final double timePerAngle(double x)
+		// opacity of the segments between two pulses
+		private static final double PULSE_MIN_OPACITY = 0.25d;
+
+		// time of the first key frame of the former timeline
+		private static final double FIRST_FRAME_TIME = 1.0d;
+
+		private final int      segments;
+		private final double   nextSegmentTime;
+		private final double   nextSpinTime;
+		private final double[] angles;
+		private final double[] opacities;
+		private final double[] times;
+
+		private TimingTable(int segments, int anglePerStep, double maxStepTime,
+							double nextSegmentTime, double nextSpinTime)
+		{
+			this.segments = segments;
+			this.nextSegmentTime = nextSegmentTime;
+			this.nextSpinTime = nextSpinTime;
+
+			final int steps = 720 / anglePerStep + 1;
+			this.angles = new double[steps];
+			this.opacities = new double[steps];
+			this.times = new double[steps];
+
+			double time = 0;
+			for (int s = 0, i = 0; s < steps; s++, i += anglePerStep)
+			{
+				time += TimingTable.timePerAngle(i, maxStepTime);
+				this.angles[s] = i;
+				this.opacities[s] = TimingTable.opacityPerAngle(i);
+				this.times[s] = time;
+			}
+		}
+
+		private static double timePerAngle(double x, double maxStepTime)
 		{
 			// t = |sin(x*PI / 360)| * time
-			//			return (Math.abs(Math.sin((x * Math.PI) / 360.0d)
-			//									 * MetroProgressIndicatorSkin.this.maxStepTime.get()));
+			//			return (Math.abs(Math.sin((x * Math.PI) / 360.0d) * maxStepTime));
 
 			// t = ((-cos(x*PI / 180) + 1) / 2) * time
-			return (-Math.cos((x * Math.PI) / 180.0d) + 1) / 2
-					* MetroProgressIndicatorSkin.this.maxStepTime.get();
+			return (-Math.cos((x * Math.PI) / 180.0d) + 1) / 2 * maxStepTime;
 		}
 
-		private final double opacityPerAngle(double x)
+		private static double opacityPerAngle(double x)
 		{
 			if (x > 10.0d && x <= 710.0d)
 			{
@@ -113,17 +231,540 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 			return (Math.abs(Math.sin((x * Math.PI) / 80.0d)));
 		}
 
+		private double getStartTime(int segment)
+		{
+			return this.nextSegmentTime * segment;
+		}
+
+		private double getEndTime(int segment)
+		{
+			return this.getStartTime(segment) + this.times[this.times.length - 1]
+					+ this.nextSpinTime;
+		}
+
+		/**
+		 * @return The time of one cycle of all segments, after which the
+		 * animation starts again.
+		 */
+		private double getCycleTime()
+		{
+			return this.segments > 0 ? this.getEndTime(this.segments - 1) : 0;
+		}
+
+		/**
+		 * @return The time of one wave of the pulse mode, each segment lights
+		 * up <i>nextSegmentTime</i> after the previous one.
+		 */
+		private double getPulseCycleTime()
+		{
+			return this.nextSegmentTime * this.segments + this.nextSpinTime;
+		}
+
+		private double getPulseOpacity(int segment, double time)
+		{
+			final double cycleTime = this.getPulseCycleTime();
+			double local = time - this.getStartTime(segment);
+			if (cycleTime > 0)
+			{
+				local %= cycleTime;
+				if (local < 0)
+				{
+					local += cycleTime;
+				}
+			}
+			final double width = 2 * this.nextSegmentTime;
+			if (width <= 0 || local >= width)
+			{
+				return TimingTable.PULSE_MIN_OPACITY;
+			}
+			return TimingTable.PULSE_MIN_OPACITY + (1 - TimingTable.PULSE_MIN_OPACITY)
+					* Math.sin((local * Math.PI) / width);
+		}
+
+		private double getAngle(int segment, double time)
+		{
+			return this.sample(this.angles, segment, time);
+		}
+
+		private double getOpacity(int segment, double time)
+		{
+			return this.sample(this.opacities, segment, time);
+		}
+
+		/**
+		 * Interpolates linearly between the steps like a timeline does. After
+		 * the last step the value returns to 0 within <i>nextSpinTime</i>.
+		 */
+		private double sample(double[] values, int segment, double time)
+		{
+			final double local = time - this.getStartTime(segment);
+			final int last = this.times.length - 1;
+			// the former timeline had a key frame with the first step values at
+			// 1 ms for all segments, it delays the first step of segment 0
+			final double first = last > 0 ? Math.max(this.times[0], Math.min(
+					TimingTable.FIRST_FRAME_TIME - this.getStartTime(segment), this.times[1]))
+										   : this.times[0];
+			if (local <= first)
+			{
+				return values[0];
+			}
+			if (local >= this.times[last])
+			{
+				final double rest = local - this.times[last];
+				return rest >= this.nextSpinTime ? 0 : values[last] * (1 - rest / this.nextSpinTime);
+			}
+
+			int s = Arrays.binarySearch(this.times, local);
+			if (s >= 0)
+			{
+				return values[s];
+			}
+			// the step before the time
+			s = -s - 2;
+			final double from = s == 0 ? first : this.times[s];
+			final double fraction = (local - from) / (this.times[s + 1] - from);
+			return values[s] + (values[s + 1] - values[s]) * fraction;
+		}
+	}
+
+	/**
+	 * Measures the duration of the pulses and hands the average of every window
+	 * to all registered skins. The toolkit runs the animations before it fires
+	 * its first pulse listener, so the time the spinners spend sampling their
+	 * animation is added by {@link #addAnimationTime(long)} to the time from the
+	 * stage pulse until the end of the scene pulses. The latter includes
+	 * synchronizing the scene with the renderer, rendering itself runs on the
+	 * render thread and is only seen as far as the scene pulse waits for it.
+	 */
+	private static final class PulseMonitor implements TKPulseListener
+	{
+		private static final long WINDOW = 500_000_000L;
+
+		// only accessed on the FX thread
+		private static PulseMonitor instance;
+
+		private final List<WeakReference<MetroProgressIndicatorSkin>> skins = new ArrayList<>();
+		// the toolkit only holds its pulse listeners weakly
+		private final TKPulseListener pulseEndListener = this::pulseEnd;
+
+		private long pulseStart;
+		// time of the spinner animations since the last pulse
+		private long animationNanos;
+		private long windowStart;
+		private long windowNanos;
+		private int  windowPulses;
+
+		private static PulseMonitor getInstance()
+		{
+			if (PulseMonitor.instance == null)
+			{
+				PulseMonitor.instance = new PulseMonitor();
+				Toolkit.getToolkit().addStageTkPulseListener(PulseMonitor.instance);
+				Toolkit.getToolkit()
+					   .addPostSceneTkPulseListener(PulseMonitor.instance.pulseEndListener);
+			}
+			return PulseMonitor.instance;
+		}
+
+		private void register(MetroProgressIndicatorSkin skin)
+		{
+			this.skins.add(new WeakReference<>(skin));
+		}
+
+		private void addAnimationTime(long nanos)
+		{
+			this.animationNanos += nanos;
+		}
+
+		@Override
+		public void pulse()
+		{
+			this.pulseStart = System.nanoTime() - this.animationNanos;
+			this.animationNanos = 0;
+		}
+
+		private void pulseEnd()
+		{
+			if (this.pulseStart == 0)
+			{
+				return;
+			}
+			final long now = System.nanoTime();
+			this.windowNanos += now - this.pulseStart;
+			this.windowPulses++;
+			this.pulseStart = 0;
+
+			if (this.windowStart == 0)
+			{
+				this.windowStart = now;
+			}
+			else if (now - this.windowStart >= PulseMonitor.WINDOW)
+			{
+				final double pulseTime = this.windowNanos / 1e6 / this.windowPulses;
+				this.windowStart = now;
+				this.windowNanos = 0;
+				this.windowPulses = 0;
+				// skins must not change the scene graph within the pulse
+				Platform.runLater(() -> this.publish(pulseTime));
+			}
+		}
+
+		private void publish(double pulseTime)
+		{
+			for (Iterator<WeakReference<MetroProgressIndicatorSkin>> iterator = this.skins
+					.iterator(); iterator.hasNext(); )
+			{
+				final MetroProgressIndicatorSkin skin = iterator.next().get();
+				if (skin == null)
+				{
+					iterator.remove();
+				}
+				else
+				{
+					skin.updateQuality(pulseTime);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Hysteresis of the quality governor. It steps the quality level down if
+	 * the pulse time exceeds the budget and up again if there is headroom,
+	 * each only after several windows in a row, so it does not oscillate.<br>
+	 * Quality levels:<br>
+	 * 1 doubles the angle per step, 2 halves the segments as well and 3 also
+	 * reduces the framerate of the timeline.
+	 */
+	static final class QualityGovernor
+	{
+		static final int MAX_LEVEL = 3;
+		// windows in a row needed to step the quality down or up again
+		static final int OVER_BUDGET_WINDOWS  = 2;
+		static final int UNDER_BUDGET_WINDOWS = 6;
+		// the quality is only stepped up below this part of the budget
+		static final double BUDGET_HEADROOM = 0.5d;
+
+		private int level;
+		private int overBudgetWindows;
+		private int underBudgetWindows;
+
+		int getLevel()
+		{
+			return this.level;
+		}
+
+		/**
+		 * Forgets the windows counted so far, the level is kept.
+		 */
+		void pause()
+		{
+			this.overBudgetWindows = 0;
+			this.underBudgetWindows = 0;
+		}
+
+		/**
+		 * Back to full quality.
+		 */
+		void reset()
+		{
+			this.pause();
+			this.level = 0;
+		}
+
+		/**
+		 * @param pulseTime The average pulse time of a window in milliseconds
+		 * @param budget    The pulse budget in milliseconds, greater than 0
+		 * @return The quality level after this window
+		 */
+		int update(double pulseTime, double budget)
+		{
+			if (pulseTime > budget)
+			{
+				this.underBudgetWindows = 0;
+				if (++this.overBudgetWindows >= QualityGovernor.OVER_BUDGET_WINDOWS
+						&& this.level < QualityGovernor.MAX_LEVEL)
+				{
+					this.level++;
+					this.overBudgetWindows = 0;
+				}
+			}
+			else if (pulseTime < budget * QualityGovernor.BUDGET_HEADROOM)
+			{
+				this.overBudgetWindows = 0;
+				if (++this.underBudgetWindows >= QualityGovernor.UNDER_BUDGET_WINDOWS
+						&& this.level > 0)
+				{
+					this.level--;
+					this.underBudgetWindows = 0;
+				}
+			}
+			else
+			{
+				this.pause();
+			}
+			return this.level;
+		}
+	}
+
+	private static final double REDUCED_FRAMERATE    = 30.0d;
+	// the governor is opt-in, it reacts to the pulse time of the whole scene
+	private static final double DEFAULT_PULSE_BUDGET = MetroProgressIndicatorSkin
+			.readPulseBudget();
+
+	private static double readPulseBudget()
+	{
+		final String budget = System.getProperty("niobe.metro.pulseBudget");
+		if (budget != null)
+		{
+			try
+			{
+				return Math.max(0, Double.parseDouble(budget.trim()));
+			}
+			catch (NumberFormatException e)
+			{
+				// fall back to the disabled governor
+			}
+		}
+		return 0.0d;
+	}
+
+	private final QualityGovernor governor = new QualityGovernor();
+
+	private int getEffectiveSegmentCount()
+	{
+		final int segments = this.indeterminateSegmentCount.get();
+		return this.governor.getLevel() >= 2 ? Math.max(1, (segments + 1) / 2) : segments;
+	}
+
+	private int getEffectiveAnglePerStep()
+	{
+		final int angle = this.anglePerStep.get();
+		return this.governor.getLevel() >= 1 ? Math.min(angle * 2, 360) : angle;
+	}
+
+	/**
+	 * Hands the average pulse time of a window to the governor. Only spinning
+	 * indicators are governed, the pulse mode already runs at a reduced
+	 * framerate.
+	 */
+	private void updateQuality(double pulseTime)
+	{
+		final int level = this.governor.getLevel();
+		final double budget = this.pulseBudget.get();
+		if (this.showsIndeterminate != Boolean.TRUE)
+		{
+			// a spinner kept warm behind the determinate indicator keeps its
+			// level until it is shown again
+			this.governor.pause();
+			return;
+		}
+		if (budget <= 0 || this.spinner == null || !this.spinEnabled.get())
+		{
+			this.governor.reset();
+		}
+		else
+		{
+			this.governor.update(pulseTime, budget);
+		}
+
+		if (level != this.governor.getLevel() && this.spinner != null)
+		{
+			this.spinner.requestTimeline();
+		}
+	}
+
+	// Window.getOutputScaleX() since JavaFX 9, Screen.getRenderScale() before
+	private static final Method OUTPUT_SCALE = MetroProgressIndicatorSkin.findMethod(
+			Window.class, "getOutputScaleX");
+	private static final Method RENDER_SCALE = MetroProgressIndicatorSkin.findMethod(
+			Screen.class, "getRenderScale");
+	// Window.outputScaleXProperty() since JavaFX 9
+	private static final Method OUTPUT_SCALE_PROPERTY = MetroProgressIndicatorSkin.findMethod(
+			Window.class, "outputScaleXProperty");
+
+	private static Method findMethod(Class<?> type, String name)
+	{
+		try
+		{
+			return type.getMethod(name);
+		}
+		catch (NoSuchMethodException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * @return The output scale of the window since JavaFX 9, else the
+	 * window bounds, which decide the screen it is shown on.
+	 */
+	private static List<Observable> getScaleObservables(Window window)
+	{
+		if (MetroProgressIndicatorSkin.OUTPUT_SCALE_PROPERTY != null)
+		{
+			try
+			{
+				return Collections.singletonList(
+						(Observable) MetroProgressIndicatorSkin.OUTPUT_SCALE_PROPERTY
+								.invoke(window));
+			}
+			catch (ReflectiveOperationException | ClassCastException e)
+			{
+				// fall back to the window bounds
+			}
+		}
+		return Arrays.asList(window.xProperty(), window.yProperty(),
+							 window.widthProperty(), window.heightProperty());
+	}
+
+	/**
+	 * @return The offset in device pixels which moves the rotated
+	 * position to the sub-pixel phase of the upright one.
+	 */
+	private static double snapOffset(double rotated, double upright)
+	{
+		final double phase = upright - Math.floor(upright);
+		return Math.round(rotated - phase) + phase - rotated;
+	}
+
+	private static final String DEFAULT_SEGMENT_SHAPE = "M3.01 37.25 a3.5,3.5 0 1,1 0,1 Z";
+
+	/**
+	 * Immutable geometry of a segment shape. One instance per distinct SVG path
+	 * is shared by all segments of all spinners, so the path is parsed and its
+	 * bounds are computed once instead of per segment and layout pass.<br>
+	 * The SVGPath from {@link #getShape()} is shared as well, it is never
+	 * modified. A Region hooks itself into the single shape change listener of
+	 * its shape, so the cache only holds the shape weakly: it lives as long as
+	 * a segment uses it and never keeps a removed spinner reachable.
+	 */
+	private static final class SegmentShape
+	{
+		// only accessed on the FX thread
+		private static final Map<String, SegmentShape> CACHE = new HashMap<>();
+
+		// SVG path of the shape, null for a shape set by an author style sheet
+		private final String content;
+		private final double minX;
+		private final double minY;
+		private final double width;
+		private final double height;
+		// the segment rotates around the center of the box from the origin to
+		// the shape's lower right corner
+		private final double centerX;
+		private final double centerY;
+		// radius of the circle covered by the rotating segment
+		private final double radius;
+		// shape of all segments with this path, recreated once collected
+		private WeakReference<SVGPath> shape;
+
+		private SegmentShape(String content, Shape shape)
+		{
+			final Bounds bounds = shape.getLayoutBounds();
+			this.content = content;
+			this.minX = bounds.getMinX();
+			this.minY = bounds.getMinY();
+			this.width = bounds.getWidth();
+			this.height = bounds.getHeight();
+			this.centerX = bounds.getMaxX() / 2;
+			this.centerY = bounds.getMaxY() / 2;
+			this.radius = Math.hypot(Math.max(Math.abs(bounds.getMinX() - this.centerX),
+											  Math.abs(bounds.getMaxX() - this.centerX)),
+									 Math.max(Math.abs(bounds.getMinY() - this.centerY),
+											  Math.abs(bounds.getMaxY() - this.centerY)));
+		}
+
+		private static SegmentShape get(String content)
+		{
+			if (content == null || content.isEmpty())
+			{
+				content = MetroProgressIndicatorSkin.DEFAULT_SEGMENT_SHAPE;
+			}
+			return SegmentShape.CACHE.computeIfAbsent(content, path -> {
+				final SVGPath shape = new SVGPath();
+				shape.setContent(path);
+				final SegmentShape segmentShape = new SegmentShape(path, shape);
+				segmentShape.shape = new WeakReference<>(shape);
+				return segmentShape;
+			});
+		}
+
+		private SVGPath getShape()
+		{
+			SVGPath shape = this.shape != null ? this.shape.get() : null;
+			if (shape == null)
+			{
+				shape = new SVGPath();
+				shape.setContent(this.content);
+				this.shape = new WeakReference<>(shape);
+			}
+			return shape;
+		}
+	}
+
+	/**
+	 * A segment of the spinner. It is only as large as its shape and rotated
+	 * around the ring center by its own transform, so a moving segment only
+	 * dirties its own small area.
+	 */
+	private static final class Segment extends Region
+	{
+		// moves a segment at a fixed angle onto the device pixel grid
+		private final Translate snap      = new Translate();
+		private final Scale     scale     = new Scale();
+		private final Rotate    rotate    = new Rotate();
+		private final Translate translate = new Translate();
+
+		// the shape assigned by the spinner
+		private Shape        ownShape;
+		// geometry of a shape set by an author style sheet and its shape
+		private Shape        authorShape;
+		private SegmentShape authorGeometry;
+
+		private Segment()
+		{
+			this.getTransforms().setAll(this.snap, this.scale, this.rotate, this.translate);
+		}
+	}
+
+	private class MetroIndetermineSpinner extends Region
+	{
 		private IndicatorPaths pathsG;
+		private SegmentShape   shape;
 		private boolean spinEnabled  = false;
+		private boolean pulseEnabled = false;
 		private Paint   fillOverride = null;
-
-		private MetroIndetermineSpinner(boolean spinEnabled, Paint fillOverride)
+		private boolean reducedFramerate;
+		// device pixels per pixel of the window the spinner is shown in
+		private double  renderScale = 1.0d;
+
+		// scene, window and screen the render scale is taken from
+		private Scene              observedScene;
+		private Window             observedWindow;
+		private List<Observable>   observedScale = Collections.emptyList();
+		private Screen             screen;
+		private final InvalidationListener windowListener = observable -> this.attachWindow();
+		private final InvalidationListener scaleListener  = observable -> this
+				.updateRenderScale();
+
+		// clock the segments are sampled at, the transition or an injected one
+		private ObservableDoubleValue activeTimeSource;
+		private final InvalidationListener timeListener = observable -> this.sample();
+
+		// table the current animation is sampled from, only accessed on the FX thread
+		private TimingTable timingTable;
+		// incremented per request, so outdated tables are dropped on arrival
+		private int         timingGeneration;
+
+		private MetroIndetermineSpinner(boolean spinEnabled, boolean pulseEnabled,
+										Paint fillOverride)
 		{
 			// does not need to be a weak listener since it only listens to its
 			// own property
 			// this.impl_treeVisibleProperty().addListener(
 			//		MetroProgressIndicatorSkin.this.parentTreeVisibleChangedListener);
 			this.spinEnabled = spinEnabled;
+			this.pulseEnabled = pulseEnabled;
 			this.fillOverride = fillOverride;
 
 			this.setNodeOrientation(NodeOrientation.LEFT_TO_RIGHT);
@@ -133,6 +774,9 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 			this.getChildren().add(this.pathsG);
 			this.rebuild();
 
+			this.sceneProperty().addListener(this.windowListener);
+			this.attachWindow();
+
 			this.rebuildTimeline();
 
 		}
@@ -142,10 +786,6 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 			this.fillOverride = fillOverride;
 			this.rebuild();
 			this.rebuildTimeline();
-			if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-			{
-				MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
-			}
 		}
 
 		public void setSpinEnabled(boolean spinEnabled)
@@ -154,140 +794,404 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 			this.rebuildTimeline();
 		}
 
-		private void rebuildTimeline()
+		public void setPulseEnabled(boolean pulseEnabled)
+		{
+			this.pulseEnabled = pulseEnabled;
+			this.rebuildTimeline();
+		}
+
+		private TimingTable createTimingTable()
 		{
-			if (this.spinEnabled)
+			return new TimingTable(MetroProgressIndicatorSkin.this.getEffectiveSegmentCount(),
+								   MetroProgressIndicatorSkin.this.getEffectiveAnglePerStep(),
+								   MetroProgressIndicatorSkin.this.maxStepTime.get(),
+								   MetroProgressIndicatorSkin.this.nextSegmentTime.get(),
+								   MetroProgressIndicatorSkin.this.nextSpinTime.get());
+		}
+
+		/**
+		 * Computes a new timing table from the current property values on the
+		 * timing executor. The running animation keeps playing until the table
+		 * is swapped in on the FX thread, which then only adjusts the cycle
+		 * duration of the transition and samples the segments once.
+		 */
+		private void requestTimeline()
+		{
+			final int generation = ++this.timingGeneration;
+			final int segments = MetroProgressIndicatorSkin.this.getEffectiveSegmentCount();
+			final int anglePerStep = MetroProgressIndicatorSkin.this.getEffectiveAnglePerStep();
+			final double maxStepTime = MetroProgressIndicatorSkin.this.maxStepTime.get();
+			final double nextSegmentTime = MetroProgressIndicatorSkin.this.nextSegmentTime.get();
+			final double nextSpinTime = MetroProgressIndicatorSkin.this.nextSpinTime.get();
+
+			MetroProgressIndicatorSkin.TIMING_EXECUTOR.execute(() -> {
+				final TimingTable table = new TimingTable(segments, anglePerStep, maxStepTime,
+														  nextSegmentTime, nextSpinTime);
+				Platform.runLater(() -> this.swapTimingTable(generation, table));
+			});
+		}
+
+		private void swapTimingTable(int generation, TimingTable table)
+		{
+			if (generation != this.timingGeneration
+					|| MetroProgressIndicatorSkin.this.spinner != this)
 			{
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition == null)
+				return;
+			}
+			this.timingTable = table;
+			if (this.pathsG.getChildren().size() != table.segments)
+			{
+				this.rebuild();
+			}
+			this.rebuildTimeline();
+		}
+
+		/**
+		 * Drives the spinner on the real clock. Its time in milliseconds is the
+		 * default time source of the spinner.
+		 */
+		private final class SpinnerTransition extends Transition
+		{
+			private final DoubleProperty time = new SimpleDoubleProperty(this, "time");
+
+			private SpinnerTransition()
+			{
+				this.setInterpolator(Interpolator.LINEAR);
+				this.setCycleCount(Animation.INDEFINITE);
+			}
+
+			private SpinnerTransition(double targetFramerate)
+			{
+				super(targetFramerate);
+				this.setInterpolator(Interpolator.LINEAR);
+				this.setCycleCount(Animation.INDEFINITE);
+			}
+
+			@Override
+			protected void interpolate(double frac)
+			{
+				this.time.set(frac * this.getCycleDuration().toMillis());
+			}
+		}
+
+		private void setActiveTimeSource(ObservableDoubleValue timeSource)
+		{
+			if (this.activeTimeSource == timeSource)
+			{
+				return;
+			}
+			if (this.activeTimeSource != null)
+			{
+				this.activeTimeSource.removeListener(this.timeListener);
+			}
+			this.activeTimeSource = timeSource;
+			if (this.activeTimeSource != null)
+			{
+				this.activeTimeSource.addListener(this.timeListener);
+			}
+		}
+
+		/**
+		 * Sets the rotation and opacity of all segments to the values of the
+		 * timing table at the time of the active time source.
+		 */
+		private void sample()
+		{
+			final TimingTable table = this.timingTable;
+			if (this.activeTimeSource == null || table == null)
+			{
+				return;
+			}
+			// runs in the animation phase, before the pulse monitor's window
+			final long start = System.nanoTime();
+			final double cycleTime = this.spinEnabled ? table.getCycleTime()
+													  : table.getPulseCycleTime();
+			double time = this.activeTimeSource.get();
+			if (cycleTime > 0)
+			{
+				time %= cycleTime;
+				if (time < 0)
+				{
+					time += cycleTime;
+				}
+			}
+
+			final int segments = Math.min(table.segments, this.pathsG.getChildren().size());
+			for (int c = 0; c < segments; c++)
+			{
+				final Segment segment = (Segment) this.pathsG.getChildren().get(c);
+				if (this.spinEnabled)
 				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition = new Timeline();
-					MetroProgressIndicatorSkin.this.indeterminateTransition
-							.setCycleCount(Animation.INDEFINITE);
-					MetroProgressIndicatorSkin.this.indeterminateTransition
-							.setDelay(MetroProgressIndicatorSkin.this.UNCLIPPED_DELAY);
+					segment.rotate.setAngle(table.getAngle(c, time));
+					segment.setOpacity(table.getOpacity(c, time));
 				}
 				else
 				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.stop();
-					((Timeline) MetroProgressIndicatorSkin.this.indeterminateTransition)
-							.getKeyFrames().clear();
+					segment.setOpacity(table.getPulseOpacity(c, time));
 				}
-				final ObservableList<KeyFrame> keyFrames = FXCollections
-						.<KeyFrame>observableArrayList();
+			}
+			PulseMonitor.getInstance().addAnimationTime(System.nanoTime() - start);
+		}
+
+		/**
+		 * Places the segments evenly around the ring.
+		 */
+		private void standEvenly()
+		{
+			final int segments = this.pathsG.getChildren().size();
+			for (int c = 0; c < segments; c++)
+			{
+				((Segment) this.pathsG.getChildren().get(c)).rotate
+						.setAngle(360.0d * c / segments);
+			}
+			this.pathsG.snapSegments();
+		}
 
-				for (int c = 0; c < MetroProgressIndicatorSkin.this.indeterminateSegmentCount.get(); c++)
+		private void rebuildTimeline()
+		{
+			MetroProgressIndicatorSkin.TIMELINE_REBUILDS.incrementAndGet();
+			final ObservableDoubleValue timeSource = MetroProgressIndicatorSkin.this.timeSource;
+			final boolean animated = this.spinEnabled || this.pulseEnabled;
+			// the target framerate can only be set on construction, the pulse
+			// mode is always cheap
+			final boolean reduceFramerate = !this.spinEnabled
+					|| MetroProgressIndicatorSkin.this.governor.getLevel()
+					>= QualityGovernor.MAX_LEVEL;
+			if (MetroProgressIndicatorSkin.this.indeterminateTransition != null
+					&& (!animated || reduceFramerate != this.reducedFramerate
+					|| timeSource != null))
+			{
+				MetroProgressIndicatorSkin.this.indeterminateTransition.stop();
+				MetroProgressIndicatorSkin.this.indeterminateTransition = null;
+			}
+			if (!animated)
+			{
+				// a stopped animation leaves no half faded segments behind
+				this.setActiveTimeSource(null);
+				this.standEvenly();
+				for (Node child : this.pathsG.getChildren())
 				{
-					keyFrames.add(new KeyFrame(Duration.millis(1), new KeyValue(this.pathsG
-																						.getChildren().get(c)
-																						.rotateProperty(), 0),
-											   new KeyValue(this.pathsG
-																	.getChildren().get(c).opacityProperty(), 0)));
-
-					double time = MetroProgressIndicatorSkin.this.nextSegmentTime.get() * c;
-					for (int i = 0; i <= 720; i += MetroProgressIndicatorSkin.this.anglePerStep
-							.get())
-					{
-						time += this.timePerAngle(i);
-
-						keyFrames.add(new KeyFrame(Duration.millis(time), new KeyValue(this.pathsG
-																							   .getChildren().get(c)
-																							   .rotateProperty(), i),
-												   new KeyValue(
-														   this.pathsG.getChildren().get(c).opacityProperty(), this
-														   .opacityPerAngle(i))));
-					}
-					keyFrames.add(new KeyFrame(Duration.millis(time
-																	   + MetroProgressIndicatorSkin.this.nextSpinTime
-							.get()), new KeyValue(
-							this.pathsG.getChildren().get(c).rotateProperty(), 0), new KeyValue(
-							this.pathsG.getChildren().get(c).opacityProperty(), 0)));
+					child.setOpacity(1.0d);
 				}
+				return;
+			}
+
+			if (this.timingTable == null)
+			{
+				this.timingTable = this.createTimingTable();
+			}
+			if (!this.spinEnabled)
+			{
+				// the pulse mode only animates the opacity of the segments
+				this.standEvenly();
+			}
+			else
+			{
+				this.pathsG.snapSegments();
+			}
 
-				((Timeline) MetroProgressIndicatorSkin.this.indeterminateTransition).getKeyFrames()
-																					.setAll(keyFrames);
-				MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
+			if (timeSource != null)
+			{
+				// an injected time source replaces the real clock
+				this.setActiveTimeSource(timeSource);
+				this.sample();
+				return;
+			}
+
+			if (MetroProgressIndicatorSkin.this.indeterminateTransition == null)
+			{
+				MetroProgressIndicatorSkin.this.indeterminateTransition = reduceFramerate
+						? new SpinnerTransition(MetroProgressIndicatorSkin.REDUCED_FRAMERATE)
+						: new SpinnerTransition();
+				this.reducedFramerate = reduceFramerate;
+				MetroProgressIndicatorSkin.this.indeterminateTransition
+						.setDelay(MetroProgressIndicatorSkin.this.UNCLIPPED_DELAY);
 			}
 			else
 			{
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.stop();
-					((Timeline) MetroProgressIndicatorSkin.this.indeterminateTransition)
-							.getKeyFrames().clear();
-					MetroProgressIndicatorSkin.this.indeterminateTransition = null;
-				}
+				MetroProgressIndicatorSkin.this.indeterminateTransition.stop();
+			}
+			final SpinnerTransition transition = (SpinnerTransition)
+					MetroProgressIndicatorSkin.this.indeterminateTransition;
+			final double cycleTime = this.spinEnabled ? this.timingTable.getCycleTime()
+													  : this.timingTable.getPulseCycleTime();
+			transition.setCycleDuration(Duration.millis(Math.max(1, cycleTime)));
+			this.setActiveTimeSource(transition.time);
+			this.sample();
+
+			// a spinner kept warm while the determinate indicator is shown
+			// must not animate
+			if (this.getParent() != null)
+			{
+				transition.playFromStart();
 			}
 		}
 
+		/**
+		 * Square of the ring's diameter holding the segments, which rotate
+		 * inside of it. The rectangular clip only cuts the fractions of a
+		 * device pixel a snapped segment may stand out, so the bounds stay the
+		 * same while the segments rotate.
+		 */
 		private class IndicatorPaths extends Pane
 		{
-			@Override
-			protected double computePrefWidth(double height)
+			private final Rectangle clip = new Rectangle();
+
+			// the transforms are only updated if one of these changes
+			private boolean geometryValid;
+			private double  layoutSize;
+			private double  layoutRenderScale;
+			private double  layoutRadius;
+			private double  layoutScale;
+
+			private IndicatorPaths()
 			{
-				double w = 0;
-				for (Node child : this.getChildren())
+				this.setClip(this.clip);
+			}
+
+			private SegmentShape getGeometry(Segment segment)
+			{
+				final Shape shape = segment.getShape();
+				if (shape == null || shape == segment.ownShape)
 				{
-					if (child instanceof Region)
-					{
-						Region region = (Region) child;
-						if (region.getShape() != null)
-						{
-							w = Math.max(w, region.getShape().getLayoutBounds().getMaxX());
-						}
-						else
-						{
-							w = Math.max(w, region.prefWidth(height));
-						}
-					}
+					return MetroIndetermineSpinner.this.shape;
 				}
-				return w;
+				// replaced by a -fx-shape of an author style sheet, measured
+				// once per shape
+				if (shape != segment.authorShape)
+				{
+					segment.authorShape = shape;
+					segment.authorGeometry = new SegmentShape(null, shape);
+				}
+				return segment.authorGeometry;
 			}
 
-			@Override
-			protected double computePrefHeight(double width)
+			private double getRadius()
 			{
-				double h = 0;
+				double radius = 0;
 				for (Node child : this.getChildren())
 				{
-					if (child instanceof Region)
-					{
-						Region region = (Region) child;
-						if (region.getShape() != null)
-						{
-							h = Math.max(h, region.getShape().getLayoutBounds().getMaxY());
-						}
-						else
-						{
-							h = Math.max(h, region.prefHeight(width));
-						}
-					}
+					radius = Math.max(radius, this.getGeometry((Segment) child).radius);
 				}
-				return h;
+				return radius;
+			}
+
+			@Override
+			protected double computePrefWidth(double height)
+			{
+				return 2 * this.getRadius();
+			}
+
+			@Override
+			protected double computePrefHeight(double width)
+			{
+				return 2 * this.getRadius();
 			}
 
 			@Override
 			protected void layoutChildren()
 			{
+				final double radius = this.getRadius();
+				if (radius <= 0)
+				{
+					return;
+				}
+				final double renderScale = MetroIndetermineSpinner.this.renderScale;
+				final double size = Math.min(this.getWidth(), this.getHeight());
+				if (this.geometryValid && size == this.layoutSize
+						&& renderScale == this.layoutRenderScale && radius == this.layoutRadius)
+				{
+					return;
+				}
+				this.geometryValid = true;
+				this.layoutSize = size;
+				this.layoutRenderScale = renderScale;
+				this.layoutRadius = radius;
+
+				// an even number of device pixels puts the ring center on the
+				// device pixel grid
+				final double diameter = Math.max(2, Math.floor(size * renderScale / 2) * 2)
+						/ renderScale;
 				// calculate scale
-				double scale = this.getWidth() / this.computePrefWidth(-1);
+				final double scale = diameter / (2 * radius);
+				this.layoutScale = scale;
+				// device pixels per unit of the segment shapes
+				final double pixel = scale * renderScale;
+				this.clip.setWidth(diameter);
+				this.clip.setHeight(diameter);
+
 				for (Node child : this.getChildren())
 				{
-					if (child instanceof Region)
+					final Segment segment = (Segment) child;
+					final SegmentShape geometry = this.getGeometry(segment);
+					segment.resize(geometry.width, geometry.height);
+					segment.scale.setX(scale);
+					segment.scale.setY(scale);
+					segment.rotate.setPivotX(radius);
+					segment.rotate.setPivotY(radius);
+					// moves the ring center of the shape to the center of the
+					// square, snapped to the device pixels. The rotation is
+					// applied after the translation, so this only puts the
+					// segment on the device pixel grid at 0 degrees, the other
+					// fixed angles are snapped by snapSegments()
+					segment.translate.setX(Math.round((geometry.minX + radius - geometry.centerX)
+															  * pixel) / pixel);
+					segment.translate.setY(Math.round((geometry.minY + radius - geometry.centerY)
+															  * pixel) / pixel);
+				}
+				this.snapSegments();
+			}
+
+			/**
+			 * Moves segments standing at a fixed angle, in the pulse mode or
+			 * without animation, so their centers share the sub-pixel position
+			 * of the segment at 0 degrees, which is on the device pixel grid.
+			 * So all of them are rasterized alike instead of each one blurred
+			 * differently. Spinning segments are not moved, their angle changes
+			 * every frame.
+			 */
+			private void snapSegments()
+			{
+				final boolean fixed = !MetroIndetermineSpinner.this.spinEnabled;
+				final double renderScale = this.layoutRenderScale;
+				// device pixels per unit of the segment shapes
+				final double pixel = this.layoutScale * renderScale;
+				for (Node child : this.getChildren())
+				{
+					final Segment segment = (Segment) child;
+					double x = 0;
+					double y = 0;
+					if (fixed && this.geometryValid)
 					{
-						Region region = (Region) child;
-						if (region.getShape() != null)
-						{
-							region.resize(region.getShape().getLayoutBounds().getMaxX(), region
-									.getShape().getLayoutBounds().getMaxY());
-							region.getTransforms().setAll(new Scale(scale, scale, 0, 0));
-						}
-						else
-						{
-							region.autosize();
-						}
+						final SegmentShape geometry = this.getGeometry(segment);
+						final double pivot = this.layoutRadius;
+						// center of the segment at 0 degrees
+						final double cx = geometry.width / 2 + segment.translate.getX();
+						final double cy = geometry.height / 2 + segment.translate.getY();
+						final double angle = Math.toRadians(segment.rotate.getAngle());
+						final double cos = Math.cos(angle);
+						final double sin = Math.sin(angle);
+						// center of the segment at its angle
+						final double rx = pivot + (cx - pivot) * cos - (cy - pivot) * sin;
+						final double ry = pivot + (cx - pivot) * sin + (cy - pivot) * cos;
+						x = MetroProgressIndicatorSkin.snapOffset(rx * pixel, cx * pixel)
+								/ renderScale;
+						y = MetroProgressIndicatorSkin.snapOffset(ry * pixel, cy * pixel)
+								/ renderScale;
 					}
+					segment.snap.setX(x);
+					segment.snap.setY(y);
 				}
 			}
+
+			/**
+			 * Forces the next layout to update the transforms of the segments.
+			 */
+			private void invalidateGeometry()
+			{
+				this.geometryValid = false;
+				this.requestLayout();
+			}
 		}
 
 		@Override
@@ -305,24 +1209,144 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 			double scale = scaleX;
 			if ((scaleX * prefH) > h)
 			{
-				scale = h / prefH;
+				scale = h / prefH;
+			}
+			double indicatorW = this.snapDown(prefW * scale);
+			double indicatorH = this.snapDown(prefH * scale);
+			this.pathsG.resizeRelocate(this.snap((w - indicatorW) / 2),
+									   this.snap((h - indicatorH) / 2), indicatorW, indicatorH);
+		}
+
+		/**
+		 * Follows the spinner to its scene and window, so a changed render
+		 * scale is noticed.
+		 */
+		private void attachWindow()
+		{
+			final Scene scene = this.getScene();
+			if (scene != this.observedScene)
+			{
+				if (this.observedScene != null)
+				{
+					this.observedScene.windowProperty().removeListener(this.windowListener);
+				}
+				if (scene != null)
+				{
+					scene.windowProperty().addListener(this.windowListener);
+				}
+				this.observedScene = scene;
+			}
+
+			final Window window = scene != null ? scene.getWindow() : null;
+			if (window != this.observedWindow)
+			{
+				for (Observable observable : this.observedScale)
+				{
+					observable.removeListener(this.scaleListener);
+				}
+				this.observedScale = window != null ? MetroProgressIndicatorSkin
+						.getScaleObservables(window) : Collections.emptyList();
+				for (Observable observable : this.observedScale)
+				{
+					observable.addListener(this.scaleListener);
+				}
+				this.observedWindow = window;
+				this.screen = null;
+			}
+			this.updateRenderScale();
+		}
+
+		private void updateRenderScale()
+		{
+			final double renderScale = this.computeRenderScale();
+			if (renderScale != this.renderScale)
+			{
+				this.renderScale = renderScale;
+				this.requestLayout();
+				this.pathsG.requestLayout();
+			}
+		}
+
+		/**
+		 * @return The device pixels per pixel of the window the spinner is
+		 * shown in or 1 if it is unknown.
+		 */
+		private double computeRenderScale()
+		{
+			final Window window = this.observedWindow;
+			if (window == null)
+			{
+				return 1.0d;
+			}
+			try
+			{
+				Object scale = null;
+				if (MetroProgressIndicatorSkin.OUTPUT_SCALE != null)
+				{
+					scale = MetroProgressIndicatorSkin.OUTPUT_SCALE.invoke(window);
+				}
+				else if (MetroProgressIndicatorSkin.RENDER_SCALE != null)
+				{
+					final Screen screen = this.getScreen(window);
+					if (screen != null)
+					{
+						scale = MetroProgressIndicatorSkin.RENDER_SCALE.invoke(screen);
+					}
+				}
+				if (scale instanceof Number && ((Number) scale).doubleValue() > 0)
+				{
+					return ((Number) scale).doubleValue();
+				}
+			}
+			catch (ReflectiveOperationException e)
+			{
+				// fall through to the default scale
+			}
+			return 1.0d;
+		}
+
+		/**
+		 * @return The screen the center of the window is on. The screens are
+		 * only looked up again once the window has left the cached one, not
+		 * for every move.
+		 */
+		private Screen getScreen(Window window)
+		{
+			final double x = window.getX() + window.getWidth() / 2;
+			final double y = window.getY() + window.getHeight() / 2;
+			if (this.screen == null || !this.screen.getBounds().contains(x, y))
+			{
+				final List<Screen> screens = Screen.getScreensForRectangle(x, y, 1, 1);
+				this.screen = screens.isEmpty() ? null : screens.get(0);
 			}
-			double indicatorW = prefW * scale;
-			double indicatorH = prefH * scale;
-			this.pathsG.resizeRelocate((w - indicatorW) / 2, (h - indicatorH) / 2, indicatorW,
-									   indicatorH);
+			return this.screen;
+		}
+
+		private double snap(double value)
+		{
+			return Math.round(value * this.renderScale) / this.renderScale;
+		}
+
+		private double snapDown(double value)
+		{
+			return Math.floor(value * this.renderScale) / this.renderScale;
 		}
 
 		private void rebuild()
 		{
 			// update indeterminate indicator
-			final int segments = MetroProgressIndicatorSkin.this.indeterminateSegmentCount.get();
+			MetroProgressIndicatorSkin.SEGMENT_REBUILDS.incrementAndGet();
+			final int segments = MetroProgressIndicatorSkin.this.getEffectiveSegmentCount();
+			this.shape = SegmentShape.get(MetroProgressIndicatorSkin.this.segmentShape.get());
 			this.pathsG.getChildren().clear();
+			this.pathsG.invalidateGeometry();
 			for (int i = 0; i < segments; i++)
 			{
-				Region region = new Region();
+				Segment region = new Segment();
+				region.ownShape = this.shape.getShape();
+				region.setShape(region.ownShape);
 				region.setScaleShape(false);
-				region.setCenterShape(false);
+				region.setCenterShape(true);
 				region.getStyleClass().addAll("segment", "segment6");
 				if (this.fillOverride instanceof Color)
 				{
@@ -345,7 +1369,9 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		super(control);
 		this.control = control;
 
+		this.switchDelayTransition.setOnFinished(event -> this.updateRepresentation());
 		this.control.indeterminateProperty().addListener(this.indeterminateListener);
+		PulseMonitor.getInstance().register(this);
 
 		this.initialize();
 	}
@@ -412,12 +1438,7 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		{
 			if (MetroProgressIndicatorSkin.this.spinner != null)
 			{
-				MetroProgressIndicatorSkin.this.spinner.rebuild();
-				MetroProgressIndicatorSkin.this.spinner.rebuildTimeline();
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
-				}
+				MetroProgressIndicatorSkin.this.spinner.requestTimeline();
 			}
 		}
 
@@ -473,6 +1494,40 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		}
 	};
 
+	/**
+	 * True if the segments of a progress indicator which does not spin should
+	 * pulse in a wave of opacity.
+	 */
+	private final BooleanProperty pulseEnabled = new StyleableBooleanProperty(true)
+	{
+		@Override
+		protected void invalidated()
+		{
+			if (MetroProgressIndicatorSkin.this.spinner != null)
+			{
+				MetroProgressIndicatorSkin.this.spinner.setPulseEnabled(this.get());
+			}
+		}
+
+		@Override
+		public CssMetaData<ProgressIndicator, Boolean> getCssMetaData()
+		{
+			return MetroProgressIndicatorSkin.PULSE_ENABLED;
+		}
+
+		@Override
+		public Object getBean()
+		{
+			return MetroProgressIndicatorSkin.this;
+		}
+
+		@Override
+		public String getName()
+		{
+			return "pulseEnabled";
+		}
+	};
+
 	private final IntegerProperty anglePerStep = new StyleableIntegerProperty(20)
 	{
 		@Override
@@ -480,12 +1535,7 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		{
 			if (MetroProgressIndicatorSkin.this.spinner != null)
 			{
-				MetroProgressIndicatorSkin.this.spinner.rebuild();
-				MetroProgressIndicatorSkin.this.spinner.rebuildTimeline();
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
-				}
+				MetroProgressIndicatorSkin.this.spinner.requestTimeline();
 			}
 		}
 
@@ -515,12 +1565,7 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		{
 			if (MetroProgressIndicatorSkin.this.spinner != null)
 			{
-				MetroProgressIndicatorSkin.this.spinner.rebuild();
-				MetroProgressIndicatorSkin.this.spinner.rebuildTimeline();
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
-				}
+				MetroProgressIndicatorSkin.this.spinner.requestTimeline();
 			}
 		}
 
@@ -550,12 +1595,7 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		{
 			if (MetroProgressIndicatorSkin.this.spinner != null)
 			{
-				MetroProgressIndicatorSkin.this.spinner.rebuild();
-				MetroProgressIndicatorSkin.this.spinner.rebuildTimeline();
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
-				}
+				MetroProgressIndicatorSkin.this.spinner.requestTimeline();
 			}
 		}
 
@@ -585,12 +1625,7 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		{
 			if (MetroProgressIndicatorSkin.this.spinner != null)
 			{
-				MetroProgressIndicatorSkin.this.spinner.rebuild();
-				MetroProgressIndicatorSkin.this.spinner.rebuildTimeline();
-				if (MetroProgressIndicatorSkin.this.indeterminateTransition != null)
-				{
-					MetroProgressIndicatorSkin.this.indeterminateTransition.playFromStart();
-				}
+				MetroProgressIndicatorSkin.this.spinner.requestTimeline();
 			}
 		}
 
@@ -613,38 +1648,239 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		}
 	};
 
+	/**
+	 * Average pulse time in milliseconds above which the quality of the spinner
+	 * is reduced. 0, the default, disables the governor.
+	 */
+	private final DoubleProperty pulseBudget = new StyleableDoubleProperty(
+			MetroProgressIndicatorSkin.DEFAULT_PULSE_BUDGET)
+	{
+		@Override
+		public String getName()
+		{
+			return "pulseBudget";
+		}
+
+		@Override
+		public Object getBean()
+		{
+			return MetroProgressIndicatorSkin.this;
+		}
+
+		@Override
+		public CssMetaData<? extends Styleable, Number> getCssMetaData()
+		{
+			return MetroProgressIndicatorSkin.PULSE_BUDGET;
+		}
+	};
+
+	/**
+	 * The SVG path of the segments, parsed once and shared by all indicators
+	 * with the same path.
+	 */
+	private final StringProperty segmentShape = new StyleableStringProperty(
+			MetroProgressIndicatorSkin.DEFAULT_SEGMENT_SHAPE)
+	{
+		@Override
+		protected void invalidated()
+		{
+			if (MetroProgressIndicatorSkin.this.spinner != null)
+			{
+				MetroProgressIndicatorSkin.this.spinner.rebuild();
+				MetroProgressIndicatorSkin.this.spinner.rebuildTimeline();
+			}
+		}
+
+		@Override
+		public String getName()
+		{
+			return "segmentShape";
+		}
+
+		@Override
+		public Object getBean()
+		{
+			return MetroProgressIndicatorSkin.this;
+		}
+
+		@Override
+		public CssMetaData<? extends Styleable, String> getCssMetaData()
+		{
+			return MetroProgressIndicatorSkin.SEGMENT_SHAPE;
+		}
+	};
+
+	/**
+	 * Time in milliseconds an indeterminate change must be stable before the
+	 * shown indicator is switched. 0 switches immediately. A state which keeps
+	 * flipping is shown at the latest four delays after the first flip.
+	 */
+	private final DoubleProperty indeterminateSwitchDelay = new StyleableDoubleProperty(0.0d)
+	{
+		@Override
+		public String getName()
+		{
+			return "indeterminateSwitchDelay";
+		}
+
+		@Override
+		public Object getBean()
+		{
+			return MetroProgressIndicatorSkin.this;
+		}
+
+		@Override
+		public CssMetaData<? extends Styleable, Number> getCssMetaData()
+		{
+			return MetroProgressIndicatorSkin.INDETERMINATE_SWITCH_DELAY;
+		}
+	};
+
 	private MetroIndetermineSpinner spinner;
 
+	private ObservableDoubleValue timeSource;
+
+	/**
+	 * Replaces the real clock of the indeterminate animation. The segments are
+	 * sampled at the time in milliseconds of the given value whenever it
+	 * changes, so the animation can be stepped manually or faster than real
+	 * time.
+	 *
+	 * @param timeSource The animation time in milliseconds or null for the
+	 *                   real clock
+	 */
+	public void setTimeSource(ObservableDoubleValue timeSource)
+	{
+		this.timeSource = timeSource;
+		if (this.spinner != null)
+		{
+			this.spinner.rebuildTimeline();
+		}
+	}
+
+	/**
+	 * @return The injected animation time source or null if the real clock is
+	 * used.
+	 */
+	public ObservableDoubleValue getTimeSource()
+	{
+		return this.timeSource;
+	}
+
+	/**
+	 * Runs the action on the FX thread once all timing tables requested so far
+	 * are swapped in. Changes of the timing properties take effect
+	 * asynchronously, so this lets a caller stepping the animation through
+	 * {@link #setTimeSource(ObservableDoubleValue)} wait for them.
+	 *
+	 * @param action The action to run on the FX thread
+	 */
+	public static void runAfterPendingTimings(Runnable action)
+	{
+		// the single timing thread has posted all earlier tables to the FX
+		// thread before it posts the action
+		MetroProgressIndicatorSkin.TIMING_EXECUTOR.execute(() -> Platform.runLater(action));
+	}
+
+	/**
+	 * The determinate indicator created by the FX skin, kept while the spinner
+	 * is shown.
+	 */
+	private Node determinateIndicator;
+
+	/**
+	 * null until the first representation is shown, afterwards true if the
+	 * spinner is shown.
+	 */
+	private Boolean showsIndeterminate;
+
+	private final PauseTransition switchDelayTransition = new PauseTransition();
+
+	// a state flipping faster than the delay is still shown after this many delays
+	private static final int MAX_SWITCH_DELAYS = 4;
+
+	// System.nanoTime() of the first flip since the shown state
+	private long switchPendingSince;
+
 	@Override
 	protected void initialize()
 	{
 		if (this.control != null)
 		{
-			if (this.control.isIndeterminate())
+			final double delay = this.indeterminateSwitchDelay.get();
+			if (delay > 0 && this.showsIndeterminate != null)
 			{
-				this.spinner = new MetroIndetermineSpinner(this.spinEnabled.get(),
-														   this.progressColor.get());
-				this.getChildren().setAll(this.spinner);
-				if (this.control.impl_isTreeVisible())
+				if (this.showsIndeterminate == this.control.isIndeterminate())
 				{
-					if (this.indeterminateTransition != null)
-					{
-						this.indeterminateTransition.play();
-					}
+					// back at the shown state, a pending switch finds nothing to do
+					return;
+				}
+				// coalesce rapid flips, only the state after the delay is shown
+				final long now = System.nanoTime();
+				if (this.switchDelayTransition.getStatus() != Animation.Status.RUNNING)
+				{
+					this.switchPendingSince = now;
+				}
+				final double remaining = delay * MetroProgressIndicatorSkin.MAX_SWITCH_DELAYS
+						- (now - this.switchPendingSince) / 1e6;
+				if (remaining > 0)
+				{
+					this.switchDelayTransition.setDuration(Duration.millis(Math.min(delay,
+																					remaining)));
+					this.switchDelayTransition.playFromStart();
+					return;
 				}
 			}
-			else
+			this.switchDelayTransition.stop();
+			this.updateRepresentation();
+		}
+	}
+
+	private void updateRepresentation()
+	{
+		final boolean indeterminate = this.control.isIndeterminate();
+		if (this.showsIndeterminate != null && this.showsIndeterminate == indeterminate)
+		{
+			return;
+		}
+		this.showsIndeterminate = indeterminate;
+
+		if (indeterminate)
+		{
+			// the spinner is kept warm, it is only created once
+			if (this.spinner == null)
+			{
+				this.spinner = new MetroIndetermineSpinner(this.spinEnabled.get(),
+														   this.pulseEnabled.get(),
+														   this.progressColor.get());
+			}
+			this.getChildren().setAll(this.spinner);
+			if (this.control.impl_isTreeVisible())
 			{
-				if (this.spinner != null)
+				if (this.indeterminateTransition != null)
 				{
-					if (this.indeterminateTransition != null)
-					{
-						this.indeterminateTransition.stop();
-					}
-					this.spinner = null;
+					this.indeterminateTransition.play();
 				}
+			}
+		}
+		else
+		{
+			if (this.indeterminateTransition != null)
+			{
+				this.indeterminateTransition.stop();
+			}
 
+			if (this.determinateIndicator == null)
+			{
 				super.initialize();
+				if (!this.getChildren().isEmpty())
+				{
+					this.determinateIndicator = this.getChildren().get(0);
+				}
+			}
+			else
+			{
+				this.getChildren().setAll(this.determinateIndicator);
 			}
 		}
 	}
@@ -693,6 +1929,25 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		}
 	};
 
+	private static final CssMetaData<ProgressIndicator, Boolean> PULSE_ENABLED = new CssMetaData<ProgressIndicator, Boolean>(
+			"-fx-pulse-enabled", BooleanConverter.getInstance(), Boolean.TRUE)
+	{
+
+		@Override
+		public boolean isSettable(ProgressIndicator node)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) node.getSkin();
+			return skin.pulseEnabled == null || !skin.pulseEnabled.isBound();
+		}
+
+		@Override
+		public StyleableProperty<Boolean> getStyleableProperty(ProgressIndicator node)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) node.getSkin();
+			return (StyleableProperty<Boolean>) skin.pulseEnabled;
+		}
+	};
+
 	private static final CssMetaData<ProgressIndicator, Number> INDETERMINATE_SEGMENT_COUNT = new CssMetaData<ProgressIndicator, Number>(
 			"-fx-indeterminate-segment-count", SizeConverter.getInstance(), 5)
 	{
@@ -789,6 +2044,66 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		}
 	};
 
+	private static final CssMetaData<ProgressIndicator, Number> PULSE_BUDGET = new CssMetaData<ProgressIndicator, Number>(
+			"-fx-indeterminate-pulse-budget", SizeConverter.getInstance(),
+			MetroProgressIndicatorSkin.DEFAULT_PULSE_BUDGET)
+	{
+
+		@Override
+		public boolean isSettable(ProgressIndicator n)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) n.getSkin();
+			return skin.pulseBudget == null || !skin.pulseBudget.isBound();
+		}
+
+		@Override
+		public StyleableProperty<Number> getStyleableProperty(ProgressIndicator n)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) n.getSkin();
+			return (StyleableProperty<Number>) skin.pulseBudget;
+		}
+	};
+
+	private static final CssMetaData<ProgressIndicator, String> SEGMENT_SHAPE = new CssMetaData<ProgressIndicator, String>(
+			"-fx-indeterminate-segment-shape", StringConverter.getInstance(),
+			MetroProgressIndicatorSkin.DEFAULT_SEGMENT_SHAPE)
+	{
+
+		@Override
+		public boolean isSettable(ProgressIndicator n)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) n.getSkin();
+			return skin.segmentShape == null || !skin.segmentShape.isBound();
+		}
+
+		@Override
+		public StyleableProperty<String> getStyleableProperty(ProgressIndicator n)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) n.getSkin();
+			return (StyleableProperty<String>) skin.segmentShape;
+		}
+	};
+
+	private static final CssMetaData<ProgressIndicator, Number> INDETERMINATE_SWITCH_DELAY = new CssMetaData<ProgressIndicator, Number>(
+			"-fx-indeterminate-switch-delay", SizeConverter.getInstance(), 0.0d)
+	{
+
+		@Override
+		public boolean isSettable(ProgressIndicator n)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) n.getSkin();
+			return skin.indeterminateSwitchDelay == null
+					|| !skin.indeterminateSwitchDelay.isBound();
+		}
+
+		@Override
+		public StyleableProperty<Number> getStyleableProperty(ProgressIndicator n)
+		{
+			final MetroProgressIndicatorSkin skin = (MetroProgressIndicatorSkin) n.getSkin();
+			return (StyleableProperty<Number>) skin.indeterminateSwitchDelay;
+		}
+	};
+
 	public static final List<CssMetaData<? extends Styleable, ?>> STYLEABLES;
 
 	static
@@ -798,13 +2113,35 @@ public class MetroProgressIndicatorSkin extends ProgressIndicatorSkin // extends
 		styleables.add(MetroProgressIndicatorSkin.PROGRESS_COLOR);
 		styleables.add(MetroProgressIndicatorSkin.INDETERMINATE_SEGMENT_COUNT);
 		styleables.add(MetroProgressIndicatorSkin.SPIN_ENABLED);
+		styleables.add(MetroProgressIndicatorSkin.PULSE_ENABLED);
 		styleables.add(MetroProgressIndicatorSkin.ANGLE_PER_STEP);
 		styleables.add(MetroProgressIndicatorSkin.MAX_STEP_TIME);
 		styleables.add(MetroProgressIndicatorSkin.NEXT_SEGMENT_TIME);
 		styleables.add(MetroProgressIndicatorSkin.NEXT_SPIN_TIME);
+		styleables.add(MetroProgressIndicatorSkin.SEGMENT_SHAPE);
+		styleables.add(MetroProgressIndicatorSkin.PULSE_BUDGET);
+		styleables.add(MetroProgressIndicatorSkin.INDETERMINATE_SWITCH_DELAY);
 		STYLEABLES = Collections.unmodifiableList(styleables);
 	}
 
+	/**
+	 * @return The number of times the segments of any spinner have been
+	 * rebuilt since the class was loaded.
+	 */
+	public static long getSegmentRebuildCount()
+	{
+		return MetroProgressIndicatorSkin.SEGMENT_REBUILDS.get();
+	}
+
+	/**
+	 * @return The number of times the timeline of any spinner has been rebuilt
+	 * since the class was loaded.
+	 */
+	public static long getTimelineRebuildCount()
+	{
+		return MetroProgressIndicatorSkin.TIMELINE_REBUILDS.get();
+	}
+
 	/**
 	 * @return The CssMetaData associated with this class, which may include the
 	 * CssMetaData of its super classes.
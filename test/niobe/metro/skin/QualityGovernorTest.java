@@ -0,0 +1,130 @@
+/*
+ * JavaFX 8 Indetermine skin for ProgressIndicator control,
+ * inspired by Windows 8's ProgressRing.
+ * Copyright (c) 2014, fireandfuel (fireandfuel<at>hotmail<dot>de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ * See the file LICENSE included with this distribution for more
+ * information.
+ */
+
+package niobe.metro.skin;
+
+import niobe.metro.skin.MetroProgressIndicatorSkin.QualityGovernor;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Feeds synthetic pulse times into the hysteresis of the quality governor.
+ * Needs no FX toolkit.
+ */
+public class QualityGovernorTest
+{
+	private static final double BUDGET = 10.0d;
+	private static final double OVER   = 15.0d;
+	// below the headroom of half the budget
+	private static final double UNDER  = 4.0d;
+	// above the headroom, but within the budget
+	private static final double WITHIN = 7.0d;
+
+	private static void feed(QualityGovernor governor, double pulseTime, int windows)
+	{
+		for (int i = 0; i < windows; i++)
+		{
+			governor.update(pulseTime, QualityGovernorTest.BUDGET);
+		}
+	}
+
+	@Test
+	public void testStepsDownAfterWindowsOverBudget()
+	{
+		final QualityGovernor governor = new QualityGovernor();
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER,
+								 QualityGovernor.OVER_BUDGET_WINDOWS - 1);
+		assertEquals(0, governor.getLevel());
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER, 1);
+		assertEquals(1, governor.getLevel());
+	}
+
+	@Test
+	public void testSingleSpikeDoesNotStepDown()
+	{
+		final QualityGovernor governor = new QualityGovernor();
+		for (int i = 0; i < 20; i++)
+		{
+			QualityGovernorTest.feed(governor, QualityGovernorTest.OVER, 1);
+			QualityGovernorTest.feed(governor, QualityGovernorTest.WITHIN, 1);
+		}
+		assertEquals(0, governor.getLevel());
+	}
+
+	@Test
+	public void testLevelIsCapped()
+	{
+		final QualityGovernor governor = new QualityGovernor();
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER,
+								 10 * QualityGovernor.OVER_BUDGET_WINDOWS);
+		assertEquals(QualityGovernor.MAX_LEVEL, governor.getLevel());
+	}
+
+	@Test
+	public void testStepsUpOnlyWithHeadroom()
+	{
+		final QualityGovernor governor = new QualityGovernor();
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER,
+								 2 * QualityGovernor.OVER_BUDGET_WINDOWS);
+		assertEquals(2, governor.getLevel());
+
+		// within the budget, but without headroom, the level is kept
+		QualityGovernorTest.feed(governor, QualityGovernorTest.WITHIN,
+								 10 * QualityGovernor.UNDER_BUDGET_WINDOWS);
+		assertEquals(2, governor.getLevel());
+
+		QualityGovernorTest.feed(governor, QualityGovernorTest.UNDER,
+								 QualityGovernor.UNDER_BUDGET_WINDOWS - 1);
+		assertEquals(2, governor.getLevel());
+		QualityGovernorTest.feed(governor, QualityGovernorTest.UNDER, 1);
+		assertEquals(1, governor.getLevel());
+
+		QualityGovernorTest.feed(governor, QualityGovernorTest.UNDER,
+								 10 * QualityGovernor.UNDER_BUDGET_WINDOWS);
+		assertEquals(0, governor.getLevel());
+	}
+
+	@Test
+	public void testInterruptedHeadroomStartsOver()
+	{
+		final QualityGovernor governor = new QualityGovernor();
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER,
+								 QualityGovernor.OVER_BUDGET_WINDOWS);
+		assertEquals(1, governor.getLevel());
+
+		QualityGovernorTest.feed(governor, QualityGovernorTest.UNDER,
+								 QualityGovernor.UNDER_BUDGET_WINDOWS - 1);
+		QualityGovernorTest.feed(governor, QualityGovernorTest.WITHIN, 1);
+		QualityGovernorTest.feed(governor, QualityGovernorTest.UNDER,
+								 QualityGovernor.UNDER_BUDGET_WINDOWS - 1);
+		assertEquals(1, governor.getLevel());
+	}
+
+	@Test
+	public void testPauseKeepsLevelAndResetRestoresQuality()
+	{
+		final QualityGovernor governor = new QualityGovernor();
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER,
+								 QualityGovernor.OVER_BUDGET_WINDOWS + 1);
+		assertEquals(1, governor.getLevel());
+
+		// the window counted before the pause is forgotten
+		governor.pause();
+		QualityGovernorTest.feed(governor, QualityGovernorTest.OVER, 1);
+		assertEquals(1, governor.getLevel());
+
+		governor.reset();
+		assertEquals(0, governor.getLevel());
+	}
+}
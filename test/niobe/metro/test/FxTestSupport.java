@@ -0,0 +1,201 @@
+/*
+ * JavaFX 8 Indetermine skin for ProgressIndicator control,
+ * inspired by Windows 8's ProgressRing.
+ * Copyright (c) 2014, fireandfuel (fireandfuel<at>hotmail<dot>de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ * See the file LICENSE included with this distribution for more
+ * information.
+ */
+
+package niobe.metro.test;
+
+import com.sun.javafx.application.PlatformImpl;
+import javafx.application.Platform;
+import javafx.beans.value.ObservableDoubleValue;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
+import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Transform;
+import niobe.metro.skin.MetroProgressIndicatorSkin;
+import org.junit.Assume;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the FX toolkit once per test run and gives the tests access to the
+ * segments of a spinner. The toolkit needs a display; without one, e.g. on a
+ * headless build machine, the tests are skipped. Run them by xvfb-run there.
+ */
+final class FxTestSupport
+{
+	private static final long TIMEOUT = 10;
+
+	private static boolean started;
+	// reason the toolkit could not be started, the tests are skipped then
+	private static String   unavailable;
+
+	private FxTestSupport()
+	{
+	}
+
+	/**
+	 * Starts the FX toolkit, skips the calling test class if there is no
+	 * display.
+	 */
+	static synchronized void startup() throws InterruptedException
+	{
+		if (!FxTestSupport.started && FxTestSupport.unavailable == null)
+		{
+			FxTestSupport.unavailable = FxTestSupport.start();
+		}
+		Assume.assumeTrue("No display: " + FxTestSupport.unavailable,
+						  FxTestSupport.unavailable == null);
+	}
+
+	private static String start() throws InterruptedException
+	{
+		if (System.getProperty("os.name", "").startsWith("Linux")
+				&& System.getenv("DISPLAY") == null)
+		{
+			return "DISPLAY is not set";
+		}
+		// prism reads its properties on startup
+		if (System.getProperty("prism.order") == null)
+		{
+			System.setProperty("prism.order", "sw");
+		}
+		final CountDownLatch latch = new CountDownLatch(1);
+		try
+		{
+			PlatformImpl.startup(latch::countDown);
+		}
+		catch (RuntimeException | UnsatisfiedLinkError e)
+		{
+			return e.toString();
+		}
+		if (!latch.await(FxTestSupport.TIMEOUT, TimeUnit.SECONDS))
+		{
+			return "FX toolkit did not start";
+		}
+		Platform.setImplicitExit(false);
+		FxTestSupport.started = true;
+		return null;
+	}
+
+	/**
+	 * Runs the task on the FX thread and waits for its result.
+	 */
+	static <T> T runAndWait(Callable<T> task) throws Exception
+	{
+		final FutureTask<T> future = new FutureTask<>(task);
+		Platform.runLater(future);
+		try
+		{
+			return future.get(FxTestSupport.TIMEOUT, TimeUnit.SECONDS);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof Error)
+			{
+				throw (Error) e.getCause();
+			}
+			if (e.getCause() instanceof Exception)
+			{
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Waits until the timing tables requested so far are swapped in.
+	 */
+	static void awaitTimingTables() throws InterruptedException
+	{
+		final CountDownLatch latch = new CountDownLatch(1);
+		MetroProgressIndicatorSkin.runAfterPendingTimings(latch::countDown);
+		if (!latch.await(FxTestSupport.TIMEOUT, TimeUnit.SECONDS))
+		{
+			throw new IllegalStateException("Timing tables are not swapped in");
+		}
+	}
+
+	/**
+	 * Creates an indeterminate indicator in a 200x200 scene with the theme
+	 * applied, which is animated by the given time instead of the real clock.
+	 * Returns once the timing tables of the style are in use.
+	 */
+	static ProgressIndicator createIndicator(String style, ObservableDoubleValue time)
+			throws Exception
+	{
+		final ProgressIndicator indicator = FxTestSupport.runAndWait(() -> {
+			final ProgressIndicator created = FxTestSupport.createIndicator(style);
+			FxTestSupport.getSkin(created).setTimeSource(time);
+			return created;
+		});
+		// tables requested by the style sheet arrive asynchronously
+		FxTestSupport.awaitTimingTables();
+		return indicator;
+	}
+
+	// on the FX thread
+	private static ProgressIndicator createIndicator(String style)
+	{
+		final ProgressIndicator indicator = new ProgressIndicator(
+				ProgressIndicator.INDETERMINATE_PROGRESS);
+		indicator.setStyle(style);
+		final StackPane root = new StackPane(indicator);
+		final Scene scene = new Scene(root, 200, 200);
+		scene.getStylesheets().add(
+				FxTestSupport.class.getResource("/niobe/metro/css/theme.css").toExternalForm());
+		root.applyCss();
+		root.layout();
+		return indicator;
+	}
+
+	static MetroProgressIndicatorSkin getSkin(ProgressIndicator indicator)
+	{
+		return (MetroProgressIndicatorSkin) indicator.getSkin();
+	}
+
+	/**
+	 * @return The square of the ring holding the segments.
+	 */
+	static Parent getRing(ProgressIndicator indicator)
+	{
+		final Parent spinner = (Parent) indicator.lookup(".spinner");
+		return (Parent) spinner.getChildrenUnmodifiable().get(0);
+	}
+
+	static List<Node> getSegments(ProgressIndicator indicator)
+	{
+		return FxTestSupport.getRing(indicator).getChildrenUnmodifiable();
+	}
+
+	/**
+	 * @return The rotation of a segment around the ring center.
+	 */
+	static Rotate getRotate(Node segment)
+	{
+		for (Transform transform : segment.getTransforms())
+		{
+			if (transform instanceof Rotate)
+			{
+				return (Rotate) transform;
+			}
+		}
+		throw new IllegalStateException("Segment without rotation");
+	}
+}
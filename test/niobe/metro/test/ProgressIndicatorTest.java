@@ -13,34 +13,99 @@
 
 package niobe.metro.test;
 
+import com.sun.javafx.tk.TKPulseListener;
+import com.sun.javafx.tk.Toolkit;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import niobe.metro.skin.MetroProgressIndicatorSkin;
 
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Demo and stress application for the MetroProgressIndicatorSkin.<br>
+ * Without arguments it shows a single indicator. Supported options:
+ * <pre>
+ * <i>
+ * 	--count=1           number of indicators
+ * 	--segments=5        -fx-indeterminate-segment-count
+ * 	--step=20           -fx-indeterminate-angle-per-step
+ * 	--mode=pulse        pulse, static, spin or fx (default FX skin)
+ * 	--layout=grid       grid, list or tabs
+ * 	--tabs=4            number of tabs of the tabs layout
+ * 	--size=40           indicator size if count is greater than one
+ * 	--showdirty=false   software pipeline with highlighted dirty regions
+ * </i>
+ * </pre>
+ * The HUD at the bottom shows fps, pulse time, node count, heap usage and the
+ * rebuild counters of the skin, for a single indicator one figure per line.
+ */
 public class ProgressIndicatorTest extends Application
 {
+	private int    count;
+	private int    segments;
+	private int    step;
+	private String mode;
+	private String layout;
+	private int    tabs;
+	private double size;
 
 	@Override
 	public void start(Stage stage) throws Exception
 	{
+		this.parseParameters(this.getParameters().getNamed());
+
 		stage.setTitle("ProgressIndicatorTest");
-		stage.setResizable(false);
+		stage.setResizable(this.count > 1);
 
-		BorderPane pane = new BorderPane();
-		VBox box = new VBox(15.0d);
-		box.setAlignment(Pos.CENTER);
-		ProgressIndicator indicator = new ProgressIndicator(
-				ProgressIndicator.INDETERMINATE_PROGRESS);
-		box.getChildren().add(indicator);
-		box.getChildren().add(new Label("ProgressIndicatorTest"));
-		pane.setCenter(box);
+		Region center;
+		if (this.count == 1 && "grid".equals(this.layout))
+		{
+			VBox box = new VBox(15.0d);
+			box.setAlignment(Pos.CENTER);
+			box.getChildren().add(this.createIndicator());
+			box.getChildren().add(new Label("ProgressIndicatorTest"));
+			center = box;
+		}
+		else
+		{
+			center = this.createLayout();
+		}
+		BorderPane pane = new BorderPane(center);
 
-		Scene scene = new Scene(pane, 200, 200);
+		Label hud = new Label();
+		hud.setStyle("-fx-font-family: monospace; -fx-padding: 4;");
+		pane.setBottom(hud);
+
+		// a single indicator shows one figure per line
+		new PerformanceHud(hud, this.count == 1 ? "\n" : " | ").start();
+
+		Scene scene;
+		if (this.count == 1)
+		{
+			// the scene grows by the HUD below the indicator
+			center.setMinSize(200, 200);
+			scene = new Scene(pane);
+		}
+		else
+		{
+			scene = new Scene(pane, 1024, 768);
+		}
 		scene.getStylesheets().add(
 				this.getClass().getResource("/niobe/metro/css/theme.css").toExternalForm());
 		stage.setScene(scene);
@@ -48,8 +113,228 @@ public class ProgressIndicatorTest extends Application
 		stage.show();
 	}
 
+	private void parseParameters(Map<String, String> named)
+	{
+		this.count = Math.max(1, Integer.parseInt(named.getOrDefault("count", "1")));
+		this.segments = Integer.parseInt(named.getOrDefault("segments", "5"));
+		this.step = Integer.parseInt(named.getOrDefault("step", "20"));
+		this.mode = named.getOrDefault("mode", "pulse");
+		this.layout = named.getOrDefault("layout", "grid");
+		this.tabs = Math.max(1, Integer.parseInt(named.getOrDefault("tabs", "4")));
+		this.size = Double.parseDouble(named.getOrDefault("size", "40"));
+
+		switch (this.mode)
+		{
+			case "pulse":
+			case "static":
+			case "spin":
+			case "fx":
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown mode: " + this.mode);
+		}
+		switch (this.layout)
+		{
+			case "grid":
+			case "list":
+			case "tabs":
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown layout: " + this.layout);
+		}
+	}
+
+	private ProgressIndicator createIndicator()
+	{
+		ProgressIndicator indicator = new ProgressIndicator(
+				ProgressIndicator.INDETERMINATE_PROGRESS);
+		if ("fx".equals(this.mode))
+		{
+			indicator.setStyle(
+					"-fx-skin: \"com.sun.javafx.scene.control.skin.ProgressIndicatorSkin\";");
+		}
+		else
+		{
+			indicator.setStyle("-fx-indeterminate-segment-count: " + this.segments + ";"
+									   + "-fx-indeterminate-angle-per-step: " + this.step + ";"
+									   + "-fx-spin-enabled: " + "spin".equals(this.mode) + ";"
+									   + "-fx-pulse-enabled: " + "pulse".equals(this.mode) + ";");
+		}
+		if (this.count > 1)
+		{
+			indicator.setPrefSize(this.size, this.size);
+		}
+		return indicator;
+	}
+
+	private Region createLayout()
+	{
+		switch (this.layout)
+		{
+			case "list":
+				ListView<Integer> list = new ListView<>();
+				for (int i = 0; i < this.count; i++)
+				{
+					list.getItems().add(i);
+				}
+				list.setCellFactory(view -> new ListCell<Integer>()
+				{
+					private final ProgressIndicator indicator = ProgressIndicatorTest.this
+							.createIndicator();
+
+					@Override
+					protected void updateItem(Integer item, boolean empty)
+					{
+						super.updateItem(item, empty);
+						this.setText(empty ? null : "Task " + item);
+						this.setGraphic(empty ? null : this.indicator);
+					}
+				});
+				return list;
+			case "tabs":
+				TabPane tabPane = new TabPane();
+				for (int t = 0; t < this.tabs; t++)
+				{
+					int perTab = this.count / this.tabs + (t < this.count % this.tabs ? 1 : 0);
+					Tab tab = new Tab("Tab " + (t + 1), this.createGrid(perTab));
+					tab.setClosable(false);
+					tabPane.getTabs().add(tab);
+				}
+				return tabPane;
+			default:
+				return this.createGrid(this.count);
+		}
+	}
+
+	private Region createGrid(int indicators)
+	{
+		FlowPane grid = new FlowPane(4.0d, 4.0d);
+		for (int i = 0; i < indicators; i++)
+		{
+			grid.getChildren().add(this.createIndicator());
+		}
+		return grid;
+	}
+
+	/**
+	 * Measures the pulses of a scene and shows them in a label. The pulse time
+	 * is taken from the animation timers, which run after the animations of a
+	 * pulse, until the end of the scene pulse, so neither the animations nor
+	 * rendering itself are included.
+	 */
+	private static class PerformanceHud extends AnimationTimer implements TKPulseListener
+	{
+		private static final long SECOND = 1_000_000_000L;
+
+		private final Label  label;
+		// between the figures
+		private final String separator;
+
+		private long pulseStart;
+		private long frames;
+		private long pulseNanos;
+		private long maxPulseNanos;
+		private long lastUpdate;
+		private long lastSegmentRebuilds;
+		private long lastTimelineRebuilds;
+
+		private PerformanceHud(Label label, String separator)
+		{
+			this.label = label;
+			this.separator = separator;
+		}
+
+		@Override
+		public void start()
+		{
+			// the label has its full size before the first figures arrive
+			this.show(0, 0, 0, 0, 0, 0, 0, 0, 0);
+			Toolkit.getToolkit().addPostSceneTkPulseListener(this);
+			super.start();
+		}
+
+		@Override
+		public void handle(long now)
+		{
+			this.pulseStart = System.nanoTime();
+			this.frames++;
+			if (this.lastUpdate == 0)
+			{
+				this.lastUpdate = now;
+			}
+			else if (now - this.lastUpdate >= PerformanceHud.SECOND)
+			{
+				this.update(now);
+			}
+		}
+
+		@Override
+		public void pulse()
+		{
+			if (this.pulseStart != 0)
+			{
+				long nanos = System.nanoTime() - this.pulseStart;
+				this.pulseNanos += nanos;
+				this.maxPulseNanos = Math.max(this.maxPulseNanos, nanos);
+				this.pulseStart = 0;
+			}
+		}
+
+		private void update(long now)
+		{
+			double seconds = (now - this.lastUpdate) / (double) PerformanceHud.SECOND;
+			Runtime runtime = Runtime.getRuntime();
+			long heap = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+			long segmentRebuilds = MetroProgressIndicatorSkin.getSegmentRebuildCount();
+			long timelineRebuilds = MetroProgressIndicatorSkin.getTimelineRebuildCount();
+
+			this.show(this.frames / seconds, this.pulseNanos / 1e6 / Math.max(1, this.frames),
+					  this.maxPulseNanos / 1e6,
+					  PerformanceHud.countNodes(this.label.getScene().getRoot()), heap,
+					  segmentRebuilds, segmentRebuilds - this.lastSegmentRebuilds,
+					  timelineRebuilds, timelineRebuilds - this.lastTimelineRebuilds);
+
+			this.lastSegmentRebuilds = segmentRebuilds;
+			this.lastTimelineRebuilds = timelineRebuilds;
+			this.frames = 0;
+			this.pulseNanos = 0;
+			this.maxPulseNanos = 0;
+			this.lastUpdate = now;
+		}
+
+		private void show(double fps, double pulseAverage, double pulseMax, int nodes, long heap,
+						  long segmentRebuilds, long newSegmentRebuilds, long timelineRebuilds,
+						  long newTimelineRebuilds)
+		{
+			this.label.setText(String.format(
+					String.join(this.separator, "fps %5.1f", "pulse avg %5.2f ms max %5.2f ms",
+								"nodes %6d", "heap %4d MB", "rebuilds seg %d (+%d) tl %d (+%d)"),
+					fps, pulseAverage, pulseMax, nodes, heap, segmentRebuilds, newSegmentRebuilds,
+					timelineRebuilds, newTimelineRebuilds));
+		}
+
+		private static int countNodes(Node node)
+		{
+			int nodes = 1;
+			if (node instanceof Parent)
+			{
+				for (Node child : ((Parent) node).getChildrenUnmodifiable())
+				{
+					nodes += PerformanceHud.countNodes(child);
+				}
+			}
+			return nodes;
+		}
+	}
+
 	public static void main(String[] args)
 	{
+		// prism reads its properties on startup
+		if (Arrays.asList(args).contains("--showdirty=true"))
+		{
+			System.setProperty("prism.order", "sw");
+			System.setProperty("prism.showdirty", "true");
+		}
 		Application.launch(args);
 	}
 
@@ -0,0 +1,190 @@
+/*
+ * JavaFX 8 Indetermine skin for ProgressIndicator control,
+ * inspired by Windows 8's ProgressRing.
+ * Copyright (c) 2014, fireandfuel (fireandfuel<at>hotmail<dot>de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ * See the file LICENSE included with this distribution for more
+ * information.
+ */
+
+package niobe.metro.test;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ProgressIndicator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Steps the spinner frame by frame and checks the boundsInParent of its
+ * segments: every segment stays a small area inside the ring square and in
+ * the pulse mode does not move at all. This is a scene graph check, nothing
+ * is rendered; it only bounds the dirty regions as far as they follow the
+ * bounds of the changed nodes.<br>
+ * The segments at fixed angles are also checked to sit on the pixel grid
+ * alike; without a window the render scale is 1.
+ */
+public class SpinnerBoundsTest
+{
+	// one frame at 60 fps in milliseconds
+	private static final double FRAME = 1000.0d / 60;
+	// several cycles of the default timing
+	private static final double DURATION = 10_000.0d;
+	// snapping may move a segment by a fraction of a pixel
+	private static final double TOLERANCE = 1.0d;
+	// a segment covers far less of the ring square than this
+	private static final double MAX_SEGMENT_AREA = 0.05d;
+	// rounding errors of the transforms
+	private static final double PHASE = 1e-6;
+
+	@BeforeClass
+	public static void startup() throws InterruptedException
+	{
+		FxTestSupport.startup();
+	}
+
+	@Test
+	public void testSpinningSegmentsStayInsideRing() throws Exception
+	{
+		this.checkFrames("-fx-spin-enabled: true; -fx-pulse-enabled: false;", false);
+	}
+
+	@Test
+	public void testPulseSegmentsKeepBounds() throws Exception
+	{
+		this.checkFrames("-fx-spin-enabled: false; -fx-pulse-enabled: true;", true);
+	}
+
+	@Test
+	public void testFixedSegmentsShareSubPixelPhase() throws Exception
+	{
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				"-fx-spin-enabled: false; -fx-pulse-enabled: true;", new SimpleDoubleProperty());
+
+		FxTestSupport.runAndWait(() -> {
+			this.checkSnapped(indicator);
+
+			// a layout pass without changes keeps the snapped positions
+			final List<Bounds> before = SpinnerBoundsTest.getBounds(indicator);
+			indicator.getParent().requestLayout();
+			indicator.getParent().layout();
+			assertEquals(before, SpinnerBoundsTest.getBounds(indicator));
+
+			// a new size snaps the segments again
+			final double ring = FxTestSupport.getRing(indicator).getLayoutBounds().getWidth();
+			indicator.setMinSize(57, 57);
+			indicator.setPrefSize(57, 57);
+			indicator.setMaxSize(57, 57);
+			indicator.getParent().layout();
+			assertTrue("Ring is not resized",
+					   FxTestSupport.getRing(indicator).getLayoutBounds().getWidth() != ring);
+			this.checkSnapped(indicator);
+			return null;
+		});
+	}
+
+	/**
+	 * The segment at 0 degrees is on the pixel grid and the centers of all
+	 * others have the same sub-pixel position as its center.
+	 */
+	private void checkSnapped(ProgressIndicator indicator)
+	{
+		final List<Bounds> bounds = SpinnerBoundsTest.getBounds(indicator);
+		final Bounds upright = bounds.get(0);
+		assertEquals(Math.rint(upright.getMinX()), upright.getMinX(), SpinnerBoundsTest.PHASE);
+		assertEquals(Math.rint(upright.getMinY()), upright.getMinY(), SpinnerBoundsTest.PHASE);
+
+		final double phaseX = SpinnerBoundsTest.phase(SpinnerBoundsTest.centerX(upright));
+		final double phaseY = SpinnerBoundsTest.phase(SpinnerBoundsTest.centerY(upright));
+		for (int c = 1; c < bounds.size(); c++)
+		{
+			final String segment = "Segment " + c + ": " + bounds.get(c);
+			assertEquals(segment, 0, SpinnerBoundsTest.phase(
+					SpinnerBoundsTest.centerX(bounds.get(c)) - phaseX), SpinnerBoundsTest.PHASE);
+			assertEquals(segment, 0, SpinnerBoundsTest.phase(
+					SpinnerBoundsTest.centerY(bounds.get(c)) - phaseY), SpinnerBoundsTest.PHASE);
+		}
+	}
+
+	private static List<Bounds> getBounds(ProgressIndicator indicator)
+	{
+		final List<Bounds> bounds = new ArrayList<>();
+		for (Node segment : FxTestSupport.getSegments(indicator))
+		{
+			bounds.add(segment.getBoundsInParent());
+		}
+		return bounds;
+	}
+
+	private static double centerX(Bounds bounds)
+	{
+		return (bounds.getMinX() + bounds.getMaxX()) / 2;
+	}
+
+	private static double centerY(Bounds bounds)
+	{
+		return (bounds.getMinY() + bounds.getMaxY()) / 2;
+	}
+
+	/**
+	 * @return The distance to the nearest whole pixel.
+	 */
+	private static double phase(double value)
+	{
+		return Math.abs(value - Math.rint(value));
+	}
+
+	private void checkFrames(String style, boolean fixedSegments) throws Exception
+	{
+		final DoubleProperty time = new SimpleDoubleProperty();
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(style, time);
+
+		FxTestSupport.runAndWait(() -> {
+			final Parent ring = FxTestSupport.getRing(indicator);
+			final List<Node> segments = FxTestSupport.getSegments(indicator);
+			final Bounds box = ring.getLayoutBounds();
+			final double ringArea = box.getWidth() * box.getHeight();
+			assertTrue("Ring is not laid out", ringArea > 0);
+
+			final List<Bounds> segmentBounds = new ArrayList<>();
+			for (Node segment : segments)
+			{
+				segmentBounds.add(segment.getBoundsInParent());
+			}
+
+			for (double t = 0; t < SpinnerBoundsTest.DURATION; t += SpinnerBoundsTest.FRAME)
+			{
+				time.set(t);
+				for (int c = 0; c < segments.size(); c++)
+				{
+					final Bounds bounds = segments.get(c).getBoundsInParent();
+					final String frame = "Segment " + c + " at " + t + ": " + bounds;
+					assertTrue(frame, bounds.getMinX() >= box.getMinX() - SpinnerBoundsTest.TOLERANCE);
+					assertTrue(frame, bounds.getMinY() >= box.getMinY() - SpinnerBoundsTest.TOLERANCE);
+					assertTrue(frame, bounds.getMaxX() <= box.getMaxX() + SpinnerBoundsTest.TOLERANCE);
+					assertTrue(frame, bounds.getMaxY() <= box.getMaxY() + SpinnerBoundsTest.TOLERANCE);
+					assertTrue(frame, bounds.getWidth() * bounds.getHeight()
+							<= ringArea * SpinnerBoundsTest.MAX_SEGMENT_AREA);
+					if (fixedSegments)
+					{
+						assertEquals(frame, segmentBounds.get(c), bounds);
+					}
+				}
+			}
+			return null;
+		});
+	}
+}
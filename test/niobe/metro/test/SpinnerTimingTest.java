@@ -0,0 +1,240 @@
+/*
+ * JavaFX 8 Indetermine skin for ProgressIndicator control,
+ * inspired by Windows 8's ProgressRing.
+ * Copyright (c) 2014, fireandfuel (fireandfuel<at>hotmail<dot>de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ * See the file LICENSE included with this distribution for more
+ * information.
+ */
+
+package niobe.metro.test;
+
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Steps the spinner through an injected time source and compares the
+ * segments with the key frame timeline the skin used before the timing
+ * tables: per segment a key frame at 1 ms, one per step of
+ * <i>anglePerStep</i> from 0 to 720 degrees with the times of
+ * <i>timePerAngle</i> and the opacities of <i>opacityPerAngle</i> and a
+ * last one returning to 0 within <i>nextSpinTime</i>.
+ */
+public class SpinnerTimingTest
+{
+	private static final double TOLERANCE = 1e-6;
+	// sample spacing, no multiple of a step time, so the samples fall
+	// between the key frames
+	private static final double SAMPLE_STEP   = 0.37d;
+	private static final double SAMPLE_OFFSET = 0.123d;
+
+	private static final double PULSE_MIN_OPACITY = 0.25d;
+
+	@BeforeClass
+	public static void startup() throws InterruptedException
+	{
+		FxTestSupport.startup();
+	}
+
+	@Test
+	public void testDefaultSpinMatchesKeyFrames() throws Exception
+	{
+		this.checkSpin("", new KeyFrameModel(5, 20, 150.0d, 175.0d, 400.0d));
+	}
+
+	@Test
+	public void testCustomSpinMatchesKeyFrames() throws Exception
+	{
+		this.checkSpin("-fx-indeterminate-segment-count: 4;"
+							   + "-fx-indeterminate-angle-per-step: 30;"
+							   + "-fx-indeterminate-max-step-time: 200.0;"
+							   + "-fx-indeterminate-next-segment-time: 120.0;"
+							   + "-fx-indeterminate-next-spin-time: 250.0;",
+					   new KeyFrameModel(4, 30, 200.0d, 120.0d, 250.0d));
+	}
+
+	@Test
+	public void testCoarseSpinMatchesKeyFrames() throws Exception
+	{
+		this.checkSpin("-fx-indeterminate-segment-count: 6;"
+							   + "-fx-indeterminate-angle-per-step: 45;"
+							   + "-fx-indeterminate-max-step-time: 90.0;",
+					   new KeyFrameModel(6, 45, 90.0d, 175.0d, 400.0d));
+	}
+
+	@Test
+	public void testPulseOpacity() throws Exception
+	{
+		final int segments = 5;
+		final double nextSegmentTime = 175.0d;
+		final double cycleTime = nextSegmentTime * segments + 400.0d;
+		final DoubleProperty time = new SimpleDoubleProperty();
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				"-fx-spin-enabled: false; -fx-pulse-enabled: true;", time);
+
+		FxTestSupport.runAndWait(() -> {
+			final List<Node> children = FxTestSupport.getSegments(indicator);
+			assertEquals(segments, children.size());
+			for (double t = SpinnerTimingTest.SAMPLE_OFFSET; t < 2 * cycleTime;
+				 t += SpinnerTimingTest.SAMPLE_STEP)
+			{
+				time.set(t);
+				for (int c = 0; c < segments; c++)
+				{
+					final Node segment = children.get(c);
+					final String frame = "Segment " + c + " at " + t;
+					assertEquals(frame, 360.0d * c / segments,
+								 FxTestSupport.getRotate(segment).getAngle(),
+								 SpinnerTimingTest.TOLERANCE);
+
+					final double local = ((t - nextSegmentTime * c) % cycleTime + cycleTime)
+							% cycleTime;
+					final double width = 2 * nextSegmentTime;
+					final double opacity = local >= width ? SpinnerTimingTest.PULSE_MIN_OPACITY
+														  : SpinnerTimingTest.PULSE_MIN_OPACITY
+																	+ (1 - SpinnerTimingTest.PULSE_MIN_OPACITY)
+																	* Math.sin((local * Math.PI) / width);
+					assertEquals(frame, opacity, segment.getOpacity(),
+								 SpinnerTimingTest.TOLERANCE);
+				}
+			}
+			return null;
+		});
+	}
+
+	private void checkSpin(String style, KeyFrameModel model) throws Exception
+	{
+		final DoubleProperty time = new SimpleDoubleProperty();
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				"-fx-spin-enabled: true; -fx-pulse-enabled: false;" + style, time);
+
+		FxTestSupport.runAndWait(() -> {
+			final List<Node> children = FxTestSupport.getSegments(indicator);
+			assertEquals(model.getSegmentCount(), children.size());
+			// two cycles, so the wrap at the cycle end is covered
+			for (double t = SpinnerTimingTest.SAMPLE_OFFSET; t < 2 * model.getCycleTime();
+				 t += SpinnerTimingTest.SAMPLE_STEP)
+			{
+				time.set(t);
+				for (int c = 0; c < children.size(); c++)
+				{
+					final Node segment = children.get(c);
+					final String frame = "Segment " + c + " at " + t;
+					assertEquals(frame, model.getAngle(c, t),
+								 FxTestSupport.getRotate(segment).getAngle(),
+								 SpinnerTimingTest.TOLERANCE);
+					assertEquals(frame, model.getOpacity(c, t), segment.getOpacity(),
+								 SpinnerTimingTest.TOLERANCE);
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * The key frames the skin built per segment before the timing tables,
+	 * interpolated like a timeline: linearly between two key frames, the
+	 * later of two key frames at the same time applies after it.
+	 */
+	private static final class KeyFrameModel
+	{
+		// time, angle and opacity per key frame and segment
+		private final List<List<double[]>> keyFrames = new ArrayList<>();
+		private final double cycleTime;
+
+		private KeyFrameModel(int segments, int anglePerStep, double maxStepTime,
+							  double nextSegmentTime, double nextSpinTime)
+		{
+			double cycleTime = 0;
+			for (int c = 0; c < segments; c++)
+			{
+				final List<double[]> frames = new ArrayList<>();
+				frames.add(new double[] {1.0d, 0, 0});
+				double time = nextSegmentTime * c;
+				for (int i = 0; i <= 720; i += anglePerStep)
+				{
+					time += KeyFrameModel.timePerAngle(i, maxStepTime);
+					frames.add(new double[] {time, i, KeyFrameModel.opacityPerAngle(i)});
+				}
+				frames.add(new double[] {time + nextSpinTime, 0, 0});
+				// stable, key frames at the same time keep their order
+				Collections.sort(frames, (a, b) -> Double.compare(a[0], b[0]));
+				this.keyFrames.add(frames);
+				cycleTime = Math.max(cycleTime, frames.get(frames.size() - 1)[0]);
+			}
+			this.cycleTime = cycleTime;
+		}
+
+		private static double timePerAngle(double x, double maxStepTime)
+		{
+			return (-Math.cos((x * Math.PI) / 180.0d) + 1) / 2 * maxStepTime;
+		}
+
+		private static double opacityPerAngle(double x)
+		{
+			if (x > 10.0d && x <= 710.0d)
+			{
+				return 1.0d;
+			}
+			return (Math.abs(Math.sin((x * Math.PI) / 80.0d)));
+		}
+
+		private int getSegmentCount()
+		{
+			return this.keyFrames.size();
+		}
+
+		private double getCycleTime()
+		{
+			return this.cycleTime;
+		}
+
+		private double getAngle(int segment, double time)
+		{
+			return this.sample(segment, time, 1);
+		}
+
+		private double getOpacity(int segment, double time)
+		{
+			return this.sample(segment, time, 2);
+		}
+
+		private double sample(int segment, double time, int value)
+		{
+			final List<double[]> frames = this.keyFrames.get(segment);
+			final double t = time % this.cycleTime;
+			// the last key frame at or before the time
+			int k = -1;
+			while (k + 1 < frames.size() && frames.get(k + 1)[0] <= t)
+			{
+				k++;
+			}
+			if (k < 0)
+			{
+				// all segments start at 0 degrees and transparent
+				return frames.get(0)[value];
+			}
+			if (k == frames.size() - 1)
+			{
+				return frames.get(k)[value];
+			}
+			final double[] from = frames.get(k);
+			final double[] to = frames.get(k + 1);
+			return from[value] + (to[value] - from[value]) * (t - from[0]) / (to[0] - from[0]);
+		}
+	}
+}
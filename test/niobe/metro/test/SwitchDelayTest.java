@@ -0,0 +1,146 @@
+/*
+ * JavaFX 8 Indetermine skin for ProgressIndicator control,
+ * inspired by Windows 8's ProgressRing.
+ * Copyright (c) 2014, fireandfuel (fireandfuel<at>hotmail<dot>de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ * See the file LICENSE included with this distribution for more
+ * information.
+ */
+
+package niobe.metro.test;
+
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import niobe.metro.skin.MetroProgressIndicatorSkin;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Flips indicators between indeterminate and determinate: the spinner and
+ * the determinate indicator are created once and reused, a delay coalesces
+ * flips and a state which keeps flipping is still shown after four delays.
+ * The delays run on the real clock, so the waits leave a wide margin.
+ */
+public class SwitchDelayTest
+{
+	private static final double DELAY = 150.0d;
+	private static final String STYLE = "-fx-indeterminate-switch-delay: " + DELAY + ";";
+	// the latest time a flipping state is shown, four delays
+	private static final double CAP   = 4 * DELAY;
+	// flips faster than the delay
+	private static final long   FLIP  = 40;
+	// margin of the real clock and the pulses
+	private static final long   SLACK = 500;
+
+	@BeforeClass
+	public static void startup() throws InterruptedException
+	{
+		FxTestSupport.startup();
+	}
+
+	@Test
+	public void testNodesAreReused() throws Exception
+	{
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				"", new SimpleDoubleProperty());
+
+		FxTestSupport.runAndWait(() -> {
+			final Node spinner = SwitchDelayTest.getShown(indicator);
+			indicator.setProgress(0.5d);
+			final Node determinate = SwitchDelayTest.getShown(indicator);
+			assertNotSame(spinner, determinate);
+
+			final long rebuilds = MetroProgressIndicatorSkin.getSegmentRebuildCount();
+			for (int i = 0; i < 10; i++)
+			{
+				indicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+				assertSame(spinner, SwitchDelayTest.getShown(indicator));
+				indicator.setProgress(0.5d);
+				assertSame(determinate, SwitchDelayTest.getShown(indicator));
+			}
+			assertEquals("Segments are rebuilt", rebuilds,
+						 MetroProgressIndicatorSkin.getSegmentRebuildCount());
+			return null;
+		});
+	}
+
+	@Test
+	public void testShortFlipIsCoalesced() throws Exception
+	{
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				SwitchDelayTest.STYLE, new SimpleDoubleProperty());
+		final Node spinner = FxTestSupport.runAndWait(() -> SwitchDelayTest.getShown(indicator));
+
+		FxTestSupport.runAndWait(() -> {
+			indicator.setProgress(0.5d);
+			indicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+			return null;
+		});
+		Thread.sleep((long) SwitchDelayTest.DELAY + SwitchDelayTest.SLACK);
+
+		FxTestSupport.runAndWait(() -> {
+			assertSame(spinner, SwitchDelayTest.getShown(indicator));
+			return null;
+		});
+	}
+
+	@Test
+	public void testLastingFlipIsShownAfterDelay() throws Exception
+	{
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				SwitchDelayTest.STYLE, new SimpleDoubleProperty());
+		final Node spinner = FxTestSupport.runAndWait(() -> SwitchDelayTest.getShown(indicator));
+
+		FxTestSupport.runAndWait(() -> {
+			indicator.setProgress(0.5d);
+			// the switch waits for the delay
+			assertSame(spinner, SwitchDelayTest.getShown(indicator));
+			return null;
+		});
+		Thread.sleep((long) SwitchDelayTest.DELAY + SwitchDelayTest.SLACK);
+
+		FxTestSupport.runAndWait(() -> {
+			assertNotSame(spinner, SwitchDelayTest.getShown(indicator));
+			return null;
+		});
+	}
+
+	@Test
+	public void testFlippingStateIsShownAfterCap() throws Exception
+	{
+		final ProgressIndicator indicator = FxTestSupport.createIndicator(
+				SwitchDelayTest.STYLE, new SimpleDoubleProperty());
+		final Node spinner = FxTestSupport.runAndWait(() -> SwitchDelayTest.getShown(indicator));
+
+		// without the cap every flip restarts the delay and the spinner stays
+		final long end = System.nanoTime()
+				+ (long) ((SwitchDelayTest.CAP + SwitchDelayTest.SLACK) * 1e6);
+		boolean switched = false;
+		while (!switched && System.nanoTime() < end)
+		{
+			switched = FxTestSupport.runAndWait(() -> {
+				indicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+				indicator.setProgress(0.5d);
+				return SwitchDelayTest.getShown(indicator) != spinner;
+			});
+			Thread.sleep(SwitchDelayTest.FLIP);
+		}
+		assertTrue("Flipping state is not shown", switched);
+	}
+
+	// on the FX thread
+	private static Node getShown(ProgressIndicator indicator)
+	{
+		return FxTestSupport.getSkin(indicator).getChildren().get(0);
+	}
+}